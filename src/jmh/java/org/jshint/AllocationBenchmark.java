@@ -0,0 +1,109 @@
+package org.jshint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lints representative corpora, it's meant to be run with the GC profiler, which reports
+ * bytes allocated per operation, see {@link AllocationGate} which compares them with the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationBenchmark
+{
+	// ES6 corpus is made of fixtures, which are linted as modules
+	private static final String[] ES6 = {"class-declaration.js", "es6-import-export.js", "es6-export-star-from.js",
+		"es6-template-literal.js", "es6-template-literal-tagged.js", "latedef-esnext.js", "redef-es6.js"};
+	
+	@Param({"jquery-1.7.js", "backbone.js", "prototype-17.js", "es6"})
+	public String corpus;
+	
+	private List<String> sources;
+	
+	@Setup
+	public void read() throws IOException
+	{
+		sources = read(corpus);
+	}
+	
+	@Benchmark
+	public int lint()
+	{
+		int warnings = 0;
+		for (String source : sources)
+		{
+			JSHint jshint = new JSHint();
+			jshint.lint(source, options(corpus));
+			warnings += jshint.getErrors().size();
+		}
+		return warnings;
+	}
+	
+	static LinterOptions options(String corpus)
+	{
+		LinterOptions options = new LinterOptions().set("maxerr", Integer.MAX_VALUE);
+		return corpus.equals("es6") ? options.set("esversion", 6).set("module", true) : options;
+	}
+	
+	static List<String> read(String corpus) throws IOException
+	{
+		List<Path> files = new ArrayList<Path>();
+		if (corpus.equals("es6"))
+		{
+			for (String fixture : ES6)
+			{
+				files.add(Paths.get("src/test/resources/fixtures", fixture));
+			}
+		}
+		else
+		{
+			files.add(Paths.get("src/test/resources/libs", corpus));
+		}
+		
+		List<String> sources = new ArrayList<String>();
+		for (Path file : files)
+		{
+			sources.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+		}
+		return sources;
+	}
+	
+	/**
+	 * Calculates size of the corpus, allocations are normalized by it.
+	 *
+	 * @param corpus name of the corpus.
+	 * @return size of all sources in bytes.
+	 * @throws IOException if sources cannot be read.
+	 */
+	static long size(String corpus) throws IOException
+	{
+		long size = 0;
+		for (String source : read(corpus))
+		{
+			size += source.getBytes(StandardCharsets.UTF_8).length;
+		}
+		return size;
+	}
+}
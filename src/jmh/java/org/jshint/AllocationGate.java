@@ -0,0 +1,108 @@
+package org.jshint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link AllocationBenchmark} with the GC profiler and compares bytes allocated per byte
+ * of source code with the baseline. Exits with code 1 if any corpus allocates more than the
+ * baseline plus tolerance, so it can be used as a build gate.
+ *
+ * Usage: AllocationGate baseline.properties [tolerance] [--update]
+ *
+ * With --update measured values are written to the baseline instead of checking them.
+ */
+public class AllocationGate
+{
+	private static final double DEFAULT_TOLERANCE = 0.1;
+	
+	public static void main(String[] args) throws IOException, RunnerException
+	{
+		Path baselineFile = Paths.get(args[0]);
+		double tolerance = args.length > 1 && !args[1].equals("--update") ? Double.parseDouble(args[1]) : DEFAULT_TOLERANCE;
+		boolean update = args[args.length - 1].equals("--update");
+		
+		Options options = new OptionsBuilder()
+			.include(AllocationBenchmark.class.getName())
+			.addProfiler(GCProfiler.class)
+			.build();
+		
+		Map<String, Double> measured = new TreeMap<String, Double>();
+		for (RunResult result : new Runner(options).run())
+		{
+			String corpus = result.getParams().getParam("corpus");
+			measured.put(corpus, allocatedPerOperation(result) / AllocationBenchmark.size(corpus));
+		}
+		
+		Properties baseline = new Properties();
+		if (update)
+		{
+			for (Map.Entry<String, Double> entry : measured.entrySet())
+			{
+				baseline.setProperty(entry.getKey(), String.format(Locale.ROOT, "%.1f", entry.getValue()));
+			}
+			try (OutputStream out = Files.newOutputStream(baselineFile))
+			{
+				baseline.store(out, "Bytes allocated per byte of linted source, see AllocationGate");
+			}
+			System.out.println("Baseline is written to " + baselineFile);
+			return;
+		}
+		
+		try (InputStream in = Files.newInputStream(baselineFile))
+		{
+			baseline.load(in);
+		}
+		
+		boolean passed = true;
+		for (Map.Entry<String, Double> entry : measured.entrySet())
+		{
+			String expected = baseline.getProperty(entry.getKey());
+			if (expected == null)
+			{
+				System.out.format(Locale.ROOT, "%-16s %8.1f B/B, no baseline%n", entry.getKey(), entry.getValue());
+				continue;
+			}
+			
+			double limit = Double.parseDouble(expected) * (1 + tolerance);
+			boolean regressed = entry.getValue() > limit;
+			System.out.format(Locale.ROOT, "%-16s %8.1f B/B, baseline %s B/B, limit %.1f B/B%s%n",
+				entry.getKey(), entry.getValue(), expected, limit, regressed ? " REGRESSED" : "");
+			passed &= !regressed;
+		}
+		
+		if (!passed)
+		{
+			System.exit(1);
+		}
+	}
+	
+	private static double allocatedPerOperation(RunResult result)
+	{
+		// JMH prefixes names of secondary results with a middle dot in some versions
+		// Secondary results are a raw map in JMH 1.21, so they are looked up by name to avoid raw types
+		for (String name : result.getSecondaryResults().keySet())
+		{
+			if (name.endsWith("gc.alloc.rate.norm"))
+			{
+				return result.getSecondaryResults().get(name).getScore();
+			}
+		}
+		throw new IllegalStateException("GC profiler didn't report allocations");
+	}
+}
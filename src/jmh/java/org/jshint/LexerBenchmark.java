@@ -0,0 +1,50 @@
+package org.jshint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link Lexer#token()} alone, without the parser. The lexer only needs
+ * the current token from the parser, so it's kept the same way as advance() does it,
+ * that's why the benchmark is in the same package as the lexer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark
+{
+	@Benchmark
+	public int tokens(Library library, Throughput throughput)
+	{
+		State state = new State();
+		state.reset();
+		
+		Token begin = new Token();
+		state.setPrevToken(begin);
+		state.setCurrToken(begin);
+		state.setNextToken(begin);
+		
+		Lexer lexer = new Lexer(library.source, state);
+		int count = 0;
+		
+		for (Token token = lexer.token(); token != null; token = lexer.token())
+		{
+			state.setPrevToken(state.currToken());
+			state.setCurrToken(token);
+			count++;
+		}
+		
+		throughput.megabytes += library.megabytes;
+		throughput.tokens += count;
+		return count;
+	}
+}
@@ -0,0 +1,65 @@
+package org.jshint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Source code of a library from src/test/resources/libs, which is linted by benchmarks.
+ */
+@State(Scope.Benchmark)
+public class Library
+{
+	@Param({"backbone.js", "codemirror3.js", "jquery-1.7.js", "json2.js", "lodash.js", "prototype-17.js"})
+	public String lib;
+	
+	String source;
+	double megabytes; // size of the source, it's added to Throughput after every operation
+	
+	@Setup
+	public void read() throws IOException
+	{
+		byte[] bytes = Files.readAllBytes(Paths.get("src/test/resources/libs", lib));
+		source = new String(bytes, StandardCharsets.UTF_8);
+		megabytes = bytes.length / (1024.0 * 1024.0);
+	}
+	
+	/**
+	 * Creates options of the given set, warnings aren't limited, so every file is linted to the end.
+	 *
+	 * @param options "default" or "strict".
+	 * @return linter options.
+	 */
+	static LinterOptions options(String options)
+	{
+		LinterOptions o = new LinterOptions().set("maxerr", Integer.MAX_VALUE);
+		
+		if (options.equals("strict"))
+		{
+			o.set("bitwise", true)
+				.set("curly", true)
+				.set("eqeqeq", true)
+				.set("forin", true)
+				.set("freeze", true)
+				.set("latedef", true)
+				.set("noarg", true)
+				.set("nocomma", true)
+				.set("nonbsp", true)
+				.set("nonew", true)
+				.set("undef", true)
+				.set("unused", true)
+				.set("browser", true)
+				.set("maxdepth", 4)
+				.set("maxparams", 4)
+				.set("maxcomplexity", 10);
+		}
+		
+		return o;
+	}
+}
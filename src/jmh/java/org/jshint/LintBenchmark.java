@@ -0,0 +1,93 @@
+package org.jshint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link JSHint#lint(String, LinterOptions)} on every library with default
+ * and strict options. Cold benchmark creates a new linter for every file, as the CLI does,
+ * warm benchmark reuses the same linter for all files of the thread.
+ *
+ * Style rules are measured with all of them disabled by their options, except the one
+ * which has no options, and with all of them enabled, which shows per token cost of rules.
+ *
+ * Every operation also generates the summary, as the CLI does after linting, with the full
+ * profile and with the errors only profile, which the CLI uses when no reporter needs data.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LintBenchmark
+{
+	@Param({"default", "strict"})
+	public String options;
+	
+	@Param({"off", "on"})
+	public String style;
+	
+	@Param({"FULL", "ERRORS_ONLY"})
+	public LintProfile profile;
+	
+	private JSHint jshint;
+	private LinterOptions linterOptions;
+	
+	@Setup
+	public void create(Library library)
+	{
+		jshint = new JSHint();
+		jshint.setProfile(profile);
+		
+		boolean on = style.equals("on");
+		linterOptions = Library.options(options)
+			.set("camelcase", on)
+			.set("quotmark", on)
+			.set("proto", !on)
+			.set("iterator", !on)
+			.set("scripturl", !on);
+		
+		// Profiles only differ in collected data, never in warnings
+		JSHint full = new JSHint();
+		full.lint(library.source, linterOptions);
+		jshint.lint(library.source, linterOptions);
+		if (!full.generateSummary().getErrors().equals(jshint.generateSummary().getErrors()))
+		{
+			throw new IllegalStateException("Full and errors only profiles give different warnings");
+		}
+	}
+	
+	@Benchmark
+	public DataSummary cold(Library library, Throughput throughput)
+	{
+		JSHint linter = new JSHint();
+		linter.setProfile(profile);
+		linter.lint(library.source, linterOptions);
+		
+		throughput.megabytes += library.megabytes;
+		throughput.tokens += linter.getTokens();
+		return linter.generateSummary();
+	}
+	
+	@Benchmark
+	public DataSummary warm(Library library, Throughput throughput)
+	{
+		jshint.lint(library.source, linterOptions);
+		
+		throughput.megabytes += library.megabytes;
+		throughput.tokens += jshint.getTokens();
+		return jshint.generateSummary();
+	}
+}
@@ -0,0 +1,138 @@
+package org.jshint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jshint.utils.Minimatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of matching a path against an ignore pattern, like the CLI does it for every
+ * gathered file, with patterns compiled upfront and with patterns parsed on every match.
+ * Paths and patterns are generated with a fixed seed, scores are per path and pattern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MinimatchBenchmark
+{
+	private static final int PATHS = 500;
+	private static final int PATTERNS = 200;
+	private static final int OPTIONS = Minimatch.NO_CASE | Minimatch.DOT;
+	
+	private static final String[] DIRS = {"src", "lib", "test", "node_modules", "vendor", "build", "dist", "app", "components", "utils"};
+	private static final String[] EXTS = {"js", "json", "min.js", "jsx", "map"};
+	
+	private List<String> paths;
+	private List<String> patterns;
+	private List<Minimatch> matchers;
+	
+	@Setup
+	public void generate()
+	{
+		Random random = new Random(42);
+		paths = generatePaths(random);
+		patterns = generatePatterns(random);
+		
+		matchers = new ArrayList<Minimatch>();
+		for (String pattern : patterns)
+		{
+			matchers.add(Minimatch.compile(pattern, OPTIONS));
+		}
+		
+		int hits = 0;
+		for (String path : paths)
+		{
+			for (String pattern : patterns)
+			{
+				if (Minimatch.match(path, pattern, OPTIONS)) hits++;
+			}
+		}
+		if (compiled() != hits)
+		{
+			throw new IllegalStateException("Compiled and parsed patterns give different results");
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(PATHS * PATTERNS)
+	public int compiled()
+	{
+		int hits = 0;
+		for (String path : paths)
+		{
+			for (Minimatch matcher : matchers)
+			{
+				if (matcher.matches(path)) hits++;
+			}
+		}
+		return hits;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(PATHS * PATTERNS)
+	public int parsed()
+	{
+		int hits = 0;
+		for (String path : paths)
+		{
+			for (String pattern : patterns)
+			{
+				if (Minimatch.match(path, pattern, OPTIONS)) hits++;
+			}
+		}
+		return hits;
+	}
+	
+	private static List<String> generatePaths(Random random)
+	{
+		List<String> paths = new ArrayList<String>(PATHS);
+		for (int i = 0; i < PATHS; i++)
+		{
+			StringBuilder path = new StringBuilder("/home/user/project");
+			int depth = 1 + random.nextInt(6);
+			for (int j = 0; j < depth; j++)
+			{
+				path.append('/').append(DIRS[random.nextInt(DIRS.length)]);
+				if (random.nextInt(4) == 0) path.append(random.nextInt(10));
+			}
+			path.append("/file").append(i).append('.').append(EXTS[random.nextInt(EXTS.length)]);
+			paths.add(path.toString());
+		}
+		return paths;
+	}
+	
+	private static List<String> generatePatterns(Random random)
+	{
+		List<String> patterns = new ArrayList<String>(PATTERNS);
+		for (int i = 0; i < PATTERNS; i++)
+		{
+			String dir = DIRS[random.nextInt(DIRS.length)];
+			String ext = EXTS[random.nextInt(EXTS.length)];
+			switch (i % 5)
+			{
+				case 0: patterns.add("/home/user/project/" + dir + "/**"); break;
+				case 1: patterns.add("/home/user/project/**/" + dir + random.nextInt(10) + "/*." + ext); break;
+				case 2: patterns.add("/home/user/project/" + dir + "/**/file" + random.nextInt(1000) + "*.{js,json}"); break;
+				case 3: patterns.add("**/*." + ext); break;
+				default: patterns.add("/home/user/project/" + dir + "/" + DIRS[random.nextInt(DIRS.length)] + "/file?" + i + ".js"); break;
+			}
+		}
+		return patterns;
+	}
+}
@@ -0,0 +1,46 @@
+package org.jshint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link JSHint#generateSummary()} after a library was linted with default
+ * or strict options, linting itself isn't measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SummaryBenchmark
+{
+	@Param({"default", "strict"})
+	public String options;
+	
+	private JSHint jshint;
+	
+	@Setup
+	public void lint(Library library)
+	{
+		jshint = new JSHint();
+		jshint.lint(library.source, Library.options(options));
+	}
+	
+	@Benchmark
+	public DataSummary summary()
+	{
+		return jshint.generateSummary();
+	}
+}
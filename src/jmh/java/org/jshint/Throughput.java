@@ -0,0 +1,26 @@
+package org.jshint;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary result of benchmarks, which is reported as a rate per second along with ops/s,
+ * so "megabytes" is MB/s of linted source code, and "tokens" is tokens/s.
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class Throughput
+{
+	public double megabytes;
+	public long tokens;
+	
+	@Setup(Level.Iteration)
+	public void reset()
+	{
+		megabytes = 0;
+		tokens = 0;
+	}
+}
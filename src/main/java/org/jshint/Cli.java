@@ -1,15 +1,36 @@
 package org.jshint;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -23,12 +44,16 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.jshint.reporters.CheckstyleReporter;
 import org.jshint.reporters.DefaultReporter;
 import org.jshint.reporters.JSHintReporter;
 import org.jshint.reporters.JslintXmlReporter;
+import org.jshint.reporters.NdjsonReporter;
 import org.jshint.reporters.NonErrorReporter;
 import org.jshint.reporters.ReporterResult;
+import org.jshint.reporters.SarifReporter;
+import org.jshint.reporters.StreamingReporter;
 import org.jshint.reporters.UnixReporter;
 import org.jshint.utils.IOUtils;
 import org.jshint.utils.Lodash;
@@ -38,6 +63,7 @@ import com.github.jshaptic.js4j.JsonParser;
 import com.github.jshaptic.js4j.UniversalContainer;
 import com.github.jshaptic.js4j.ValueCustomizer;
 import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
 
 public class Cli
 {
@@ -54,7 +80,7 @@ public class Cli
 		OPTIONS.addOption(Option.builder()
 			.longOpt("reporter")
 			.hasArg()
-			.desc("Custom reporter (<PATH>|jslint|checkstyle|unix)")
+			.desc("Custom reporter (<PATH>|jslint|checkstyle|unix|ndjson|sarif)")
 			.argName("name")
 			.build());
 		
@@ -110,6 +136,107 @@ public class Cli
 			.argName("when")
 			.build());
 		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("threads")
+			.hasArg()
+			.desc("Number of files to lint concurrently (default is number of available processors)")
+			.argName("count")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("cache")
+			.desc("Reuse results of files which weren't changed since the previous run")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("cache-location")
+			.hasArg()
+			.desc("Path to the cache file (default is .jshintcache in the current directory)")
+			.argName("file")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("fail-fast")
+			.desc("Stop linting after the first file with warnings")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("max-warnings")
+			.hasArg()
+			.desc("Stop linting after the given number of warnings in all files")
+			.argName("count")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("errors-only")
+			.desc("Collect only warnings, without data shown by --show-non-errors, which makes linting faster")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("stats")
+			.desc("Print time spent in every phase of linting and size of linted files")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("metrics")
+			.hasArg()
+			.desc("Write throughput, cache hits and number of warnings by code to the file, as JSON if its name ends with .json, otherwise as text")
+			.argName("file")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("profile-rules")
+			.desc("Print time spent in every listener and rule of modules and in the main checks")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("shard")
+			.hasArg()
+			.desc("Lint only the given part of files, e.g. 2/4, files are split by a hash of their paths")
+			.argName("index/count")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("results")
+			.hasArg()
+			.desc("Also write results to the file, which can be merged with results of other shards by --merge")
+			.argName("file")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("merge")
+			.desc("Report results from the given files written by --results instead of linting")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("batch")
+			.desc("Lint JSON records {\"filename\", \"source\", \"config\"} from the standard input, one per line, and write results of every record as a JSON line")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("watch")
+			.desc("Keep running and lint files again when they or their configs are changed")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("daemon")
+			.desc("Keep running in background and lint files requested by org.jshint.DaemonClient")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("port")
+			.hasArg()
+			.desc("Port on the loopback interface for the daemon (default is any free port)")
+			.argName("port")
+			.build());
+		
+		OPTIONS.addOption(Option.builder()
+			.longOpt("idle-timeout")
+			.hasArg()
+			.desc("Stop the daemon after given number of minutes without requests, 0 means never (default is 60)")
+			.argName("minutes")
+			.build());
+		
 		OPTIONS.addOption(Option.builder("v")
 			.longOpt("version")
 			.desc("Display the current version")
@@ -161,6 +288,22 @@ public class Cli
 	// lookups when liniting an entire project
 	private Map<String, String> findFileResults = new HashMap<String, String>();
 	
+	// Storage for memoized configs, so each config file is read
+	// and parsed only once per run, they are stored as they were loaded
+	// and only copies are returned, because callers modify configs
+	private Map<String, UniversalContainer> configResults = new HashMap<String, UniversalContainer>(); // by directory of linted file
+	private Map<String, UniversalContainer> configFileResults = new HashMap<String, UniversalContainer>(); // by path to .jshintrc
+	private Map<String, UniversalContainer> npmConfigResults = new HashMap<String, UniversalContainer>(); // by path to package.json
+	
+	// Storage for globals declared by prerequisites, they are linted once per run and options,
+	// this storage is shared between linting threads
+	private Map<String, Prereq> prereqResults = new ConcurrentHashMap<String, Prereq>();
+	
+	// Thread pools shared between runs, they are set only when CLI is used by the daemon,
+	// otherwise pools are created for every run
+	private ExecutorService ioPool;
+	private ExecutorService cpuPool;
+	
 	public Cli()
 	{
 		setShellUtils(IOUtils.getShellUtils());
@@ -183,6 +326,47 @@ public class Cli
 		this.cli = cli;
 	}
 	
+	IOUtils.ShellUtils getShellUtils()
+	{
+		return shell;
+	}
+	
+	IOUtils.PathUtils getPathUtils()
+	{
+		return path;
+	}
+	
+	IOUtils.CliUtils getCliUtils()
+	{
+		return cli;
+	}
+	
+	/**
+	 * Returns config files, which were loaded during the last run, including
+	 * base configs and package.json files.
+	 *
+	 * @return set of absolute paths.
+	 */
+	Set<String> getLoadedConfigs()
+	{
+		Set<String> configs = new LinkedHashSet<String>();
+		for (String fp : configFileResults.keySet())
+		{
+			configs.add(path.resolve(fp));
+		}
+		for (String fp : npmConfigResults.keySet())
+		{
+			configs.add(path.resolve(fp));
+		}
+		return configs;
+	}
+	
+	void setPools(ExecutorService io, ExecutorService cpu)
+	{
+		this.ioPool = io;
+		this.cpuPool = cpu;
+	}
+	
 	/**
 	 * Tries to find a configuration file in either project directory
 	 * or in the home directory. Configuration files are named
@@ -236,14 +420,36 @@ public class Cli
 			return ContainerFactory.nullContainer();
 		}
 		
+		if (npmConfigResults.containsKey(fp))
+		{
+			return copy(npmConfigResults.get(fp));
+		}
+		
+		UniversalContainer config;
+		
 		try
 		{
-			return JsonParser.parse(shell.cat(fp)).get("jshintConfig");
+			config = JsonParser.parse(shell.cat(fp)).get("jshintConfig");
 		}
 		catch (Exception e)
 		{
-			return ContainerFactory.nullContainer();
+			config = ContainerFactory.nullContainer();
 		}
+		
+		npmConfigResults.put(fp, config);
+		return copy(config);
+	}
+	
+	/**
+	 * Creates a deep copy of the config, which can be modified without
+	 * affecting memoized configs.
+	 * 
+	 * @param config config object.
+	 * @return copy of the config.
+	 */
+	private UniversalContainer copy(UniversalContainer config)
+	{
+		return config != null && config.test() ? JsonParser.parse(JsonParser.stringify(config)) : config;
 	}
 	
 	private JSHintReporter loadReporter(ReporterType fp)
@@ -258,6 +464,10 @@ public class Cli
 			return new NonErrorReporter();
 		case UNIX:
 			return new UnixReporter();
+		case NDJSON:
+			return new NdjsonReporter();
+		case SARIF:
+			return new SarifReporter();
 		default:
 			return null;
 		}
@@ -353,31 +563,55 @@ public class Cli
 	/**
 	 * Checks whether we should ignore a file or not.
 	 *
-	 * @param fp       a path to a file
-	 * @param patterns a list of patterns for files to ignore
+	 * @param fp      a path to a file
+	 * @param ignores a set of compiled patterns for files to ignore
 	 *
 	 * @return 'true' if file should be ignored, 'false' otherwise.
 	 */
-	private boolean isIgnored(String fp, List<String> patterns)
+	private boolean isIgnored(String fp, IgnoreSet ignores)
 	{
-		return patterns.stream().anyMatch(ip -> {
-			if (Minimatch.match(path.resolve(fp), ip, Minimatch.NO_CASE | Minimatch.DOT))
-			{
-				return true;
-			}
-			
-			if (path.resolve(fp).equals(ip))
+		return isIgnored(fp, ignores, ignores.dirs.size() > 0 && shell.isDirectory(fp));
+	}
+	
+	/**
+	 * Checks whether we should ignore a file or not, when it's already known
+	 * if the file is a directory.
+	 *
+	 * @param fp          a path to a file
+	 * @param ignores     a set of compiled patterns for files to ignore
+	 * @param isDirectory whether the file is a directory
+	 *
+	 * @return 'true' if file should be ignored, 'false' otherwise.
+	 */
+	private boolean isIgnored(String fp, IgnoreSet ignores, boolean isDirectory)
+	{
+		String resolved = path.resolve(fp);
+		
+		if (ignores.paths.contains(resolved))
+		{
+			return true;
+		}
+		
+		for (Minimatch matcher : ignores.matchers)
+		{
+			if (matcher.matches(resolved))
 			{
 				return true;
 			}
-			
-			if (shell.isDirectory(fp) && Reg.isEndsWithOneOrZeroSlash(ip) && // PORT INFO: match regexp was moved to Reg class
-				fp.startsWith(ip))
+		}
+		
+		if (isDirectory)
+		{
+			for (String ip : ignores.dirs)
 			{
-				return true;
+				if (fp.startsWith(ip))
+				{
+					return true;
+				}
 			}
-			return false;
-		});
+		}
+		
+		return false;
 	}
 	
 	/**
@@ -442,14 +676,13 @@ public class Cli
 	 * Recursively gather all files that need to be linted,
 	 * excluding those that user asked to ignore.
 	 *
-	 * @param fp      a path to a file or directory to lint
-	 * @param files   a pointer to an array that stores a list of files
-	 * @param ignores a list of patterns for files to ignore
-	 * @param ext     a list of non-dot-js extensions to lint
+	 * @param fp     a path to a file or directory to lint
+	 * @param files  a pointer to an array that stores a list of files
+	 * @param filter a filter of files by extensions and ignores
 	 */
-	private void collect(String fp, List<String> files, List<String> ignores, Pattern ext)
+	private void collect(String fp, List<String> files, FileFilter filter)
 	{
-		if (ignores != null && isIgnored(fp, ignores))
+		if (!filter.accept(fp))
 		{
 			return;
 		}
@@ -462,14 +695,13 @@ public class Cli
 		
 		if (shell.isDirectory(fp))
 		{
-			for (String item : shell.ls(fp))
-			{
-				String itempath = path.join(fp, item);
-				if (shell.isDirectory(itempath) || Reg.test(ext, itempath))
+			// Ignored directories are pruned before they are listed
+			shell.walk(fp, filter::acceptDirectory, file -> {
+				if (filter.acceptFile(file))
 				{
-					collect(itempath, files, ignores, ext);
+					files.add(file);
 				}
-			}
+			});
 			
 			return;
 		}
@@ -477,23 +709,57 @@ public class Cli
 		files.add(fp);
 	}
 	
+	/**
+	 * Lints a prerequisite with the same options as the file, which depends on it,
+	 * and returns globals declared by it. Result is computed once per run for every
+	 * combination of prerequisite and options, but the same prerequisite can be linted
+	 * by several threads at once, the first result is kept then.
+	 *
+	 * @param fp     path to the prerequisite
+	 * @param config an object with JSHint configuration
+	 * @return globals of the prerequisite or its code, if it has to be prepended to the file
+	 * @throws IOException if there is issue reading prerequisite from filesystem
+	 * @throws JSHintException if prerequisite cannot be linted for some reason
+	 */
+	private Prereq getPrereq(String fp, UniversalContainer config) throws IOException, JSHintException
+	{
+		String options = JsonParser.stringify(config);
+		String key = fp + "\n" + options;
+		
+		// Prerequisite isn't linted inside of the map, so other threads aren't blocked
+		Prereq prereq = prereqResults.get(key);
+		if (prereq == null)
+		{
+			String code = StringUtils.removeStart(shell.cat(fp), "\uFEFF");
+			JSHint jshint = new JSHint();
+			jshint.lint(code, new LinterOptions(JsonParser.parse(options)));
+			
+			prereq = new Prereq(jshint, code);
+			Prereq existing = prereqResults.putIfAbsent(key, prereq);
+			if (existing != null) prereq = existing;
+		}
+		return prereq;
+	}
+	
 	/**
 	 * Runs JSHint against provided file and saves the result
 	 *
-	 * @param code    code that needs to be linted
-	 * @param results a pointer to an object with results
-	 * @param config  an object with JSHint configuration
-	 * @param data    a pointer to an object with extra data
-	 * @param file    (optional) file name that is being linted
+	 * @param file file with its code, config and options of linting, results
+	 *             and extra data are added to it, config is modified during
+	 *             linting, so file should have a private copy
 	 * @throws IOException if there is issue reading files from filesystem
-	 * @throws JSHintException if <b>code</b> cannot be linted for some reason
+	 * @throws JSHintException if code of the <b>file</b> cannot be linted for some reason
 	 */
-	private void lint(String code, List<ReporterResult> results, UniversalContainer config, List<DataSummary> data, String file) throws IOException, JSHintException
+	private void lint(LintedFile file) throws IOException, JSHintException
 	{
-		LinterGlobals globals = new LinterGlobals();
-		List<String> buffer = new ArrayList<String>();
+		UniversalContainer config = file.config;
+		String code = file.code;
+		LintCache cache = file.cache;
+		LintMetricsListener metrics = file.metrics;
+		LintProfiler profiler = file.profiler;
 		
-		config = JsonParser.parse(JsonParser.stringify(config));
+		LinterGlobals globals = new LinterGlobals();
+		List<String> prereqs = new ArrayList<String>();
 		
 		if (config.test("prereq"))
 		{
@@ -501,7 +767,7 @@ public class Cli
 			{
 				String fp = path.join(config.asString("dirname"), v.asString());
 				if (shell.exists(fp))
-					buffer.add(shell.cat(fp));
+					prereqs.add(fp);
 			}
 			config.delete("prereq");
 		}
@@ -514,12 +780,12 @@ public class Cli
 		
 		if (config.test("overrides"))
 		{
-			if (StringUtils.isNotEmpty(file))
+			if (StringUtils.isNotEmpty(file.file))
 			{
 				for (String pattern : config.get("overrides").keys())
 				{
 					UniversalContainer options = config.get("overrides").get(pattern);
-					if (Minimatch.match(path.normalize(file), pattern, Minimatch.NO_CASE | Minimatch.MATCH_BASE))
+					if (Minimatch.match(path.normalize(file.file), pattern, Minimatch.NO_CASE | Minimatch.MATCH_BASE))
 					{
 						if (options.test("globals"))
 						{
@@ -536,26 +802,126 @@ public class Cli
 		
 		config.delete("dirname");
 		
-		buffer.add(code);
-		code = StringUtils.join(buffer, "\n");
+		// Prerequisites are not prepended to the code, instead their globals are predefined,
+		// so line numbers in the results are not shifted, globals from config take precedence.
+		// Only prerequisites with option directives are prepended, because they apply to the code.
+		List<String> buffer = new ArrayList<String>();
+		List<String> exporteds = new ArrayList<String>();
+		for (String fp : prereqs)
+		{
+			Prereq prereq = getPrereq(fp, config);
+			if (prereq.code != null)
+			{
+				buffer.add(prereq.code);
+				continue;
+			}
+			
+			for (Map.Entry<String, Boolean> global : prereq.globals.entrySet())
+			{
+				globals.putIfAbsent(global.getKey(), global.getValue());
+			}
+			exporteds.addAll(prereq.exporteds);
+		}
+		
 		code = StringUtils.removeStart(code, "\uFEFF"); // Remove potential Unicode BOM.
 		
+		if (buffer.size() > 0)
+		{
+			buffer.add(code);
+			code = StringUtils.join(buffer, "\n");
+		}
+		
+		// Exported names are passed as an option, so they are a part of the config hash
+		if (exporteds.size() > 0)
+		{
+			if (!config.test("exported"))
+			{
+				config.set("exported", ContainerFactory.createArray());
+			}
+			for (String name : exporteds)
+			{
+				if (config.isArray("exported"))
+				{
+					config.get("exported").push(name);
+				}
+				else
+				{
+					config.get("exported").set(name, true);
+				}
+			}
+		}
+		
+		// Everything that can affect linting results is already merged into the code,
+		// config and globals, so their hash is enough to reuse results from previous runs
+		String hash = null;
+		if (cache != null && StringUtils.isNotEmpty(file.file))
+		{
+			hash = LintCache.hash(code, config, globals, file.profile);
+			DataSummary cached = cache.get(file.file, hash);
+			
+			if (metrics != null)
+			{
+				metrics.cacheLookup(cached != null);
+			}
+			
+			if (cached != null)
+			{
+				for (LinterWarning err : cached.getErrors())
+				{
+					file.errors.add(new ReporterResult(file.file, err));
+				}
+				file.data.add(cached);
+				
+				// File isn't lexed, so only its tokens and time of linting are unknown
+				if (metrics != null)
+				{
+					metrics.fileLinted(0, Reg.splitByEOL(code).length, 0, JSHint.countWarnings(cached.getErrors()));
+				}
+				return;
+			}
+		}
+		
 		JSHint jshint = new JSHint();
+		jshint.setProfile(file.profile);
+		jshint.setCancellation(file.cancelled);
+		jshint.setFileName(StringUtils.defaultIfEmpty(file.file, "stdin"));
+		jshint.setStats(file.stats != null);
+		if (metrics != null)
+		{
+			jshint.addMetricsListener(metrics);
+		}
+		
+		// Files can be linted concurrently, so each of them has its own profiler
+		LintProfiler fileProfiler = profiler != null ? new LintProfiler() : null;
+		jshint.setProfiler(fileProfiler);
 		
 		if (!jshint.lint(code, new LinterOptions(config), globals))
 		{
 			for (LinterWarning err: jshint.getErrors())
 			{
-				results.add(new ReporterResult(StringUtils.defaultIfEmpty(file, "stdin"), err));
+				file.errors.add(new ReporterResult(StringUtils.defaultIfEmpty(file.file, "stdin"), err));
 			}
 		}
 		
 		DataSummary lintData = jshint.generateSummary();
 		
+		if (profiler != null)
+		{
+			synchronized (profiler)
+			{
+				profiler.add(fileProfiler);
+			}
+		}
+		
 		if (lintData != null)
 		{
-			lintData.setFile(StringUtils.defaultIfEmpty(file, "stdin"));
-			data.add(lintData);
+			lintData.setFile(StringUtils.defaultIfEmpty(file.file, "stdin"));
+			file.data.add(lintData);
+			
+			if (hash != null)
+			{
+				cache.put(file.file, hash, lintData);
+			}
 		}
 	}
 	
@@ -644,8 +1010,27 @@ public class Cli
 	 */
 	public UniversalContainer getConfig(String fp) throws ExitException
 	{
+		// Config depends only on the directory of the file, so it's resolved once per directory
+		String dir = path.dirname(path.resolve(fp));
+		
+		Object event = LintEvents.beginConfig();
+		if (configResults.containsKey(dir))
+		{
+			UniversalContainer ret = copy(configResults.get(dir));
+			LintEvents.commitConfig(event, fp, true);
+			return ret;
+		}
+		
 		UniversalContainer ret = loadNpmConfig(fp);
-		return ret.test() ? ret : loadConfig(findConfig(fp));
+		ret = ret.test() ? ret : loadConfig(findConfig(fp));
+		
+		if (ret != null)
+		{
+			configResults.put(dir, copy(ret));
+		}
+		
+		LintEvents.commitConfig(event, fp, false);
+		return ret;
 	}
 	
 	/**
@@ -662,6 +1047,11 @@ public class Cli
 			return ContainerFactory.createObject();
 		}
 		
+		if (configFileResults.containsKey(fp))
+		{
+			return copy(configFileResults.get(fp));
+		}
+		
 		if (!shell.exists(fp))
 		{
 			cli.error("Can't find config file: " + fp);
@@ -692,6 +1082,7 @@ public class Cli
 				config.delete("extends");
 			}
 			
+			configFileResults.put(fp, copy(config));
 			return config;
 		}
 		catch (Exception e)
@@ -713,6 +1104,26 @@ public class Cli
 	public List<String> gather(RunOptions opts) throws IOException
 	{
 		List<String> files = new ArrayList<String>();
+		FileFilter filter = createFileFilter(opts);
+		
+		for (String target : opts.args)
+		{
+			collect(target, files, filter);
+		}
+		
+		return files;
+	}
+	
+	/**
+	 * Creates a filter, which decides whether files and directories found inside
+	 * of the linted directories have to be linted, in the same way as gather() does.
+	 *
+	 * @param opts post-processed options from main function.
+	 * @return filter of files.
+	 * @throws IOException if ignore files cannot be read from filesystem.
+	 */
+	FileFilter createFileFilter(RunOptions opts) throws IOException
+	{
 		Pattern reg = Pattern.compile("\\.(js" +
 			(opts.extensions == null || opts.extensions.isEmpty() ? "" : "|" +
 				StringUtils.replace(StringUtils.replace(opts.extensions, ",", "|"), "[\\. ]", "")) + ")$");
@@ -730,12 +1141,8 @@ public class Cli
 			}
 		}
 		
-		for (String target : opts.args)
-		{
-			collect(target, files, ignores, reg);
-		}
-		
-		return files;
+		// Patterns are compiled once, since they are matched against every visited file and directory
+		return new FileFilter(reg, new IgnoreSet(ignores));
 	}
 	
 	private void mergeCliPrereq(RunOptions opts, UniversalContainer config)
@@ -759,9 +1166,24 @@ public class Cli
 	 */
 	public boolean run(RunOptions opts) throws ExitException, JSHintException, IOException
 	{
+		clearMemos();
+		
 		List<String> files = gather(opts);
-		List<ReporterResult> results = new ArrayList<ReporterResult>();
-		List<DataSummary> data = new ArrayList<DataSummary>();
+		
+		if (opts.shardCount > 1)
+		{
+			files = shard(files, opts.shardIndex, opts.shardCount);
+		}
+		
+		// Results are passed to the reporter as soon as every file is linted, so they aren't kept in memory
+		StreamingReporter reporter = StreamingReporter.of(opts.reporter != null ? opts.reporter : new DefaultReporter());
+		int warnings = 0;
+		reporter.start(opts.verbose);
+		
+		if (opts.metrics != null)
+		{
+			opts.metrics.runStarted();
+		}
 		
 		String filename = "";
 		
@@ -773,7 +1195,7 @@ public class Cli
 		{
 			filename = path.resolve(opts.filename);
 		}
-		if (opts.useStdin && opts.ignores.indexOf(filename) == -1)
+		if (opts.useStdin && (opts.ignores == null || opts.ignores.indexOf(filename) == -1))
 		{
 			String code = cli.readFromStdin();
 			
@@ -788,55 +1210,514 @@ public class Cli
 			
 			mergeCliPrereq(opts, config);
 			
-			lint(extract(code, opts.extract), results, config, data, filename);
+			LintedFile stdin = new LintedFile(filename, JsonParser.parse(JsonParser.stringify(config)), null, opts.profile);
+			stdin.code = extract(code, opts.extract);
+			stdin.stats = opts.stats;
+			stdin.metrics = opts.metrics;
+			stdin.profiler = opts.profiler;
+			lint(stdin);
+			warnings += report(stdin, reporter);
 		}
 		else
 		{
-			for (String file : files)
+			// Files go through three stages: reading and extraction on I/O pool, linting on
+			// CPU pool and reporting on the calling thread. Configs are resolved on the calling
+			// thread too, in the original order, because config lookups are memoized.
+			boolean concurrent = opts.threads > 1 && files.size() > 1;
+			boolean sharedPools = ioPool != null && cpuPool != null;
+			ExecutorService io = !concurrent ? null : sharedPools ? ioPool : Executors.newFixedThreadPool(Math.min(opts.threads, files.size()));
+			ExecutorService cpu = !concurrent ? null : sharedPools ? cpuPool : Executors.newFixedThreadPool(Math.min(opts.threads, files.size()));
+			
+			// Bounds number of files which are read but not reported yet
+			int window = opts.threads * 2;
+			Deque<Future<LintedFile>> pending = new ArrayDeque<Future<LintedFile>>();
+			
+			// Set once reported files have enough warnings, files which are not reported yet
+			// are cancelled, so the reporter gets only files which were completely linted
+			AtomicBoolean cancelled = new AtomicBoolean(false);
+			int reported = 0;
+			
+			try
 			{
-				UniversalContainer config = ContainerFactory.undefinedContainerIfFalse(opts.config);
-				String code = "";
-				List<ReporterResult> errors = new ArrayList<ReporterResult>();
+				for (String file : files)
+				{
+					// Results are reported in the same order as files were gathered, no matter
+					// in which order they were linted, if the window is full wait for the oldest file
+					while (!cancelled.get() && !pending.isEmpty() && (pending.size() >= window || pending.peek().isDone()))
+					{
+						warnings += report(await(pending.poll()), reporter);
+						reported++;
+						cancelled.set(isWarningsLimitReached(warnings, opts));
+					}
+					
+					if (cancelled.get())
+					{
+						break;
+					}
+					
+					UniversalContainer config = ContainerFactory.undefinedContainerIfFalse(opts.config);
+					
+					// Every file gets its own copy of the config, because it's modified during linting
+					config = config.test() ? copy(config) : getConfig(file);
+					
+					mergeCliPrereq(opts, config);
+					
+					LintedFile lintedFile = new LintedFile(file, config, opts.cache, opts.profile);
+					lintedFile.cancelled = cancelled::get;
+					lintedFile.stats = opts.stats;
+					lintedFile.metrics = opts.metrics;
+					lintedFile.profiler = opts.profiler;
+					
+					if (!concurrent)
+					{
+						warnings += report(lintFile(readFile(lintedFile, opts.extract)), reporter);
+						reported++;
+						cancelled.set(isWarningsLimitReached(warnings, opts));
+					}
+					else
+					{
+						pending.add(CompletableFuture
+							.supplyAsync(() -> readFile(lintedFile, opts.extract), io)
+							.thenApplyAsync(f -> {
+								try
+								{
+									return lintFile(f);
+								}
+								catch (IOException e)
+								{
+									throw new UncheckedIOException(e);
+								}
+							}, cpu));
+						
+						if (opts.metrics != null)
+						{
+							opts.metrics.queueDepth(pending.size());
+						}
+					}
+				}
 				
-				config = config.test() ? config : getConfig(file);
+				while (!cancelled.get() && !pending.isEmpty())
+				{
+					warnings += report(await(pending.poll()), reporter);
+					reported++;
+					cancelled.set(isWarningsLimitReached(warnings, opts));
+				}
 				
-				try
+				if (reported < files.size())
 				{
-					code = shell.cat(file);
+					cli.error("Linting stopped after " + warnings + " warning" + (warnings == 1 ? "" : "s") + ", " + (files.size() - reported) + " of " + files.size() + " files were skipped");
 				}
-				catch (IOException e)
+			}
+			finally
+			{
+				if (concurrent && !sharedPools)
 				{
-					cli.error("Can't open " + file);
-					exit(1);
+					io.shutdownNow();
+					cpu.shutdownNow();
 				}
 				
-				mergeCliPrereq(opts, config);
-				
-				lint(extract(code, opts.extract), errors, config, data, file);
+				// Shared pools outlive the run, so files which won't be reported anymore are cancelled
+				for (Future<LintedFile> file : pending)
+				{
+					file.cancel(true);
+				}
+			}
+		}
+		
+		reporter.end();
+		
+		if (opts.metrics != null)
+		{
+			opts.metrics.runFinished();
+		}
+		
+		return warnings == 0;
+	}
+	
+	/**
+	 * Checks if linting should be stopped, because the run has already failed.
+	 * 
+	 * @param warnings number of reported warnings.
+	 * @param opts     options of the run.
+	 * @return true if warnings reached the limit.
+	 */
+	private boolean isWarningsLimitReached(int warnings, RunOptions opts)
+	{
+		return opts.maxWarnings > 0 && warnings >= opts.maxWarnings;
+	}
+	
+	/**
+	 * Selects files of a single shard. Every file is assigned to a shard by a hash of its path
+	 * relative to the working directory, so all nodes split files in the same way, no matter
+	 * where the project is checked out and in which order files are found.
+	 * 
+	 * @param files all files.
+	 * @param index 1-based index of the shard.
+	 * @param count number of shards.
+	 * @return files of the shard in the original order.
+	 */
+	private List<String> shard(List<String> files, int index, int count)
+	{
+		Path cwd = Paths.get(path.cwd());
+		List<String> result = new ArrayList<String>();
+		
+		for (String file : files)
+		{
+			String key = cwd.relativize(Paths.get(path.resolve(file))).toString().replace('\\', '/');
+			int hash = Hashing.murmur3_32().hashString(key, StandardCharsets.UTF_8).asInt();
+			
+			if (Math.floorMod(hash, count) == index - 1)
+			{
+				result.add(file);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Lints a stream of documents from the standard input, one JSON record per line,
+	 * and writes results of every record as a JSON line to the standard output as soon
+	 * as it's linted. Records are linted concurrently, so results can be written in a
+	 * different order, <code>id</code> of the record is copied to its result.
+	 *
+	 * Record: <code>{"id": any, "filename": string, "source": string, "config": object}</code>,
+	 * only source is required. If config is missing, it's resolved in the same way as for
+	 * files, using filename. Result: <code>{"id": any, "filename": string, "errors": array}</code>,
+	 * or <code>{"id": any, "line": number, "error": string}</code> if record cannot be linted.
+	 *
+	 * @param opts post-processed options from main function.
+	 * @return true if all records passed, false otherwise.
+	 * @throws IOException if standard input cannot be read.
+	 */
+	public boolean runBatch(RunOptions opts) throws IOException
+	{
+		clearMemos();
+		
+		AtomicBoolean passed = new AtomicBoolean(true);
+		PrintStream out = System.out;
+		
+		if (opts.metrics != null)
+		{
+			opts.metrics.runStarted();
+		}
+		
+		boolean concurrent = opts.threads > 1;
+		ExecutorService cpu = !concurrent ? null : cpuPool != null ? cpuPool : Executors.newFixedThreadPool(opts.threads);
+		
+		// Bounds number of records which are read but not written yet
+		int window = opts.threads * 2;
+		Semaphore pending = new Semaphore(window);
+		
+		try (BufferedReader in = cli.openStdin())
+		{
+			String line;
+			int number = 0;
+			
+			while ((line = in.readLine()) != null)
+			{
+				number++;
 				
-				if (errors.size() > 0)
+				if (StringUtils.isBlank(line))
 				{
-					Map<Integer, Integer> offsets = extractOffsets(code, opts.extract);
-					if (offsets != null && offsets.size() > 0)
+					continue;
+				}
+				
+				UniversalContainer result = ContainerFactory.createObject();
+				UniversalContainer record;
+				UniversalContainer config;
+				
+				try
+				{
+					record = JsonParser.parse(line);
+					
+					if (record.has("id"))
+					{
+						result.set("id", record.get("id"));
+					}
+					
+					if (!record.has("source"))
+					{
+						throw new IllegalArgumentException("Missing source");
+					}
+				}
+				catch (Exception e)
+				{
+					result.set("line", number);
+					result.set("error", "Can't parse record: " + e.getMessage());
+					writeBatchResult(out, result);
+					passed.set(false);
+					continue;
+				}
+				
+				String filename = StringUtils.defaultString(record.asString("filename"));
+				result.set("filename", StringUtils.defaultIfEmpty(filename, "stdin"));
+				
+				// Configs are resolved on this thread, because config lookups are memoized
+				try
+				{
+					if (record.test("config"))
+					{
+						config = copy(record.get("config"));
+					}
+					else if (ContainerFactory.undefinedContainerIfFalse(opts.config).test())
+					{
+						config = copy(opts.config);
+					}
+					else if (StringUtils.isNotEmpty(filename))
+					{
+						config = getConfig(path.resolve(filename));
+					}
+					else
 					{
-						for (ReporterResult errorInfo : errors)
+						config = ContainerFactory.createObject();
+					}
+				}
+				catch (ExitException e)
+				{
+					result.set("line", number);
+					result.set("error", "Can't load config for " + filename);
+					writeBatchResult(out, result);
+					passed.set(false);
+					continue;
+				}
+				
+				mergeCliPrereq(opts, config);
+				
+				String code = extract(record.asString("source"), opts.extract);
+				int recordLine = number;
+				Runnable task = () -> {
+					try
+					{
+						// Only warnings are written, so summaries aren't collected
+						LintedFile file = new LintedFile(filename, config, null, LintProfile.ERRORS_ONLY);
+						file.code = code;
+						file.metrics = opts.metrics;
+						file.stats = opts.stats;
+						file.profiler = opts.profiler;
+						lint(file);
+						
+						// Records are linted concurrently, so stats of the run are shared
+						if (file.stats != null && !file.data.isEmpty() && file.data.get(0).getStats() != null)
 						{
-							int line = errorInfo.getError().getLine();
-							if (line >= 0 && offsets.containsKey(line) && offsets.get(line) != 0)
+							synchronized (file.stats)
 							{
-								errorInfo.getError().shiftCharacter(offsets.get(line));
+								file.stats.add(file.data.get(0).getStats());
 							}
 						}
+						
+						UniversalContainer errors = ContainerFactory.createArray();
+						for (ReporterResult r : file.errors)
+						{
+							LinterWarning err = r.getError();
+							UniversalContainer error = ContainerFactory.createObject();
+							error.set("line", err.getLine());
+							error.set("character", err.getCharacter());
+							error.set("code", err.getCode());
+							error.set("reason", err.getReason());
+							error.set("evidence", err.getEvidence());
+							errors.push(error);
+						}
+						result.set("errors", errors);
+						
+						if (file.errors.size() > 0) passed.set(false);
+					}
+					catch (Throwable e)
+					{
+						// Errors too, e.g. stack overflow on deeply nested code, otherwise the record would be
+						// lost inside of the concurrent task without any result
+						result.set("line", recordLine);
+						result.set("error", e.getMessage() != null ? e.getMessage() : e.toString());
+						passed.set(false);
 					}
 					
-					results.addAll(errors);
+					writeBatchResult(out, result);
+				};
+				
+				if (!concurrent)
+				{
+					task.run();
+					continue;
+				}
+				
+				pending.acquire();
+				CompletableFuture.runAsync(task, cpu).whenComplete((r, e) -> pending.release());
+				
+				if (opts.metrics != null)
+				{
+					opts.metrics.queueDepth(window - pending.availablePermits());
+				}
+			}
+			
+			// Wait for the records which are still linted
+			pending.acquire(window);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Linting was interrupted");
+		}
+		finally
+		{
+			if (concurrent && cpuPool == null)
+			{
+				cpu.shutdownNow();
+			}
+		}
+		
+		if (opts.metrics != null)
+		{
+			opts.metrics.runFinished();
+		}
+		
+		return passed.get();
+	}
+	
+	private void writeBatchResult(PrintStream out, UniversalContainer result)
+	{
+		String json = JsonParser.stringify(result);
+		
+		// Every record is written at once, so concurrently linted records are not mixed up
+		synchronized (out)
+		{
+			out.println(json);
+			out.flush();
+		}
+	}
+	
+	void clearMemos()
+	{
+		// Config files may have been changed since the previous run
+		configResults.clear();
+		configFileResults.clear();
+		npmConfigResults.clear();
+		prereqResults.clear();
+	}
+	
+	/**
+	 * Reads a single file and extracts JS code from it. Doesn't touch any shared
+	 * state, so it's safe to call it concurrently for different files.
+	 * 
+	 * @param file    file to be read.
+	 * @param extract when code should be extracted from HTML.
+	 * @return the same file with its code.
+	 */
+	private LintedFile readFile(LintedFile file, String extract)
+	{
+		String code = "";
+		
+		try
+		{
+			code = shell.cat(file.file);
+		}
+		catch (IOException e)
+		{
+			file.unreadable = true;
+		}
+		
+		file.code = extract(code, extract);
+		file.offsets = extractOffsets(code, extract);
+		
+		return file;
+	}
+	
+	/**
+	 * Lints a single file which was read before. Doesn't touch any shared state,
+	 * so it's safe to call it concurrently for different files.
+	 * 
+	 * @param file file to be linted.
+	 * @return the same file with its linting results.
+	 * @throws IOException if there is issue reading prerequisites from filesystem
+	 * @throws JSHintException if there is issue during code linting.
+	 */
+	private LintedFile lintFile(LintedFile file) throws IOException, JSHintException
+	{
+		lint(file);
+		
+		if (file.errors.size() > 0 && file.offsets != null && file.offsets.size() > 0)
+		{
+			for (ReporterResult errorInfo : file.errors)
+			{
+				int line = errorInfo.getError().getLine();
+				if (line >= 0 && file.offsets.containsKey(line) && file.offsets.get(line) != 0)
+				{
+					errorInfo.getError().shiftCharacter(file.offsets.get(line));
 				}
 			}
 		}
 		
-		JSHintReporter reporter = opts.reporter != null ? opts.reporter : new DefaultReporter();
-		reporter.generate(results, data, opts.verbose);
-		return results.size() == 0;
+		// Source isn't needed anymore, only results are kept until the file is reported
+		file.code = null;
+		file.config = null;
+		file.offsets = null;
+		
+		return file;
+	}
+	
+	/**
+	 * Passes results of a single linted file to the reporter.
+	 * 
+	 * @param file     linting results of the file.
+	 * @param reporter reporter of the run.
+	 * @return number of warnings in the file.
+	 * @throws ExitException if file cannot be read.
+	 */
+	private int report(LintedFile file, StreamingReporter reporter) throws ExitException
+	{
+		if (file.unreadable)
+		{
+			cli.error("Can't open " + file.file);
+			exit(1);
+		}
+		
+		String name = StringUtils.defaultIfEmpty(file.file, "stdin");
+		reporter.fileStarted(name);
+		for (ReporterResult result : file.errors)
+		{
+			reporter.warning(result);
+		}
+		reporter.fileFinished(name, file.data.isEmpty() ? null : file.data.get(0));
+		
+		// Files from the cache weren't linted, so they have no stats
+		if (file.stats != null && !file.data.isEmpty() && file.data.get(0).getStats() != null)
+		{
+			file.stats.add(file.data.get(0).getStats());
+		}
+		
+		return file.errors.size();
+	}
+	
+	/**
+	 * Waits for concurrently linted file and rethrows its failure, if any.
+	 * 
+	 * @param future pending linting result.
+	 * @return linting results of the file.
+	 * @throws IOException if there is issue reading files from filesystem
+	 * @throws JSHintException if there is issue during code linting.
+	 */
+	private LintedFile await(Future<LintedFile> future) throws IOException, JSHintException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Linting was interrupted");
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException)
+				throw (IOException)e.getCause();
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException)e.getCause()).getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException)e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error)e.getCause();
+			throw new IOException(e.getCause());
+		}
 	}
 	
 	/**
@@ -900,6 +1781,18 @@ public class Cli
 					reporter = loadReporter(ReporterType.UNIX);
 				}
 				
+				// Newline-delimited JSON reporter, summaries of files are added with --show-non-errors
+				else if (options.hasOption("reporter") && options.getOptionValue("reporter").equals("ndjson"))
+				{
+					reporter = options.hasOption("show-non-errors") ? new NdjsonReporter(true) : loadReporter(ReporterType.NDJSON);
+				}
+				
+				// SARIF reporter
+				else if (options.hasOption("reporter") && options.getOptionValue("reporter").equals("sarif"))
+				{
+					reporter = loadReporter(ReporterType.SARIF);
+				}
+				
 				// Reporter that displays additional JSHint data
 				else if (options.hasOption("show-non-errors"))
 				{
@@ -918,9 +1811,48 @@ public class Cli
 					}
 				}
 				
+				int threads = Runtime.getRuntime().availableProcessors();
+				if (options.hasOption("threads"))
+				{
+					threads = NumberUtils.toInt(options.getOptionValue("threads"), 0);
+					
+					if (threads < 1)
+					{
+						cli.error("Invalid number of threads: " + options.getOptionValue("threads"));
+						exit(1);
+					}
+				}
+				
+				if (options.hasOption("daemon"))
+				{
+					// Request sent to the daemon can't start another one
+					if (ioPool != null)
+					{
+						cli.error("Daemon is already running");
+						exit(1);
+					}
+					
+					int port = NumberUtils.toInt(options.getOptionValue("port", "0"), -1);
+					if (port < 0 || port > 65535)
+					{
+						cli.error("Invalid port: " + options.getOptionValue("port"));
+						exit(1);
+					}
+					
+					int idleTimeout = NumberUtils.toInt(options.getOptionValue("idle-timeout", "60"), -1);
+					if (idleTimeout < 0)
+					{
+						cli.error("Invalid idle timeout: " + options.getOptionValue("idle-timeout"));
+						exit(1);
+					}
+					
+					new Daemon(DaemonClient.getDaemonFile(), port, (int)TimeUnit.MINUTES.toMillis(idleTimeout), threads).start();
+					exit(0);
+				}
+				
 				boolean passed = true;
 				
-				passed = run(new RunOptions(
+				RunOptions runOptions = new RunOptions(
 					ArrayUtils.removeElement(options.getArgs(), "-"),
 					config,
 					reporter,
@@ -931,7 +1863,135 @@ public class Cli
 					options.getOptionValue("filename"),
 					options.getOptionValue("prereq"),
 					args.length > 0 && (args[args.length-1].equals("-") || args[args.length-1].equals("/dev/stdin"))
-				));
+				);
+				runOptions.setThreads(threads);
+				runOptions.setConfigFile(options.getOptionValue("config"));
+				
+				if (options.hasOption("shard"))
+				{
+					String[] shard = StringUtils.split(options.getOptionValue("shard"), "/");
+					int index = shard.length == 2 ? NumberUtils.toInt(shard[0], 0) : 0;
+					int count = shard.length == 2 ? NumberUtils.toInt(shard[1], 0) : 0;
+					
+					if (index < 1 || index > count)
+					{
+						cli.error("Invalid shard: " + options.getOptionValue("shard"));
+						exit(1);
+					}
+					
+					runOptions.setShard(index, count);
+				}
+				
+				if (options.hasOption("max-warnings"))
+				{
+					int maxWarnings = NumberUtils.toInt(options.getOptionValue("max-warnings"), 0);
+					
+					if (maxWarnings < 1)
+					{
+						cli.error("Invalid number of warnings: " + options.getOptionValue("max-warnings"));
+						exit(1);
+					}
+					
+					runOptions.setMaxWarnings(maxWarnings);
+				}
+				
+				if (options.hasOption("fail-fast"))
+				{
+					runOptions.setMaxWarnings(1);
+				}
+				
+				if (options.hasOption("errors-only"))
+				{
+					if (options.hasOption("show-non-errors"))
+					{
+						cli.error("Can't show non-errors with --errors-only");
+						exit(1);
+					}
+					
+					runOptions.setProfile(LintProfile.ERRORS_ONLY);
+				}
+				
+				if (options.hasOption("stats"))
+				{
+					runOptions.setStats(new LintStats());
+				}
+				
+				if (options.hasOption("profile-rules"))
+				{
+					runOptions.setProfiler(new LintProfiler());
+				}
+				
+				if (options.hasOption("metrics"))
+				{
+					runOptions.setMetrics(new LintMetricsFile(Paths.get(path.resolve(path.cwd(), options.getOptionValue("metrics")))));
+				}
+				
+				if (options.hasOption("results"))
+				{
+					Path resultsFile = Paths.get(path.resolve(path.cwd(), options.getOptionValue("results")));
+					runOptions.setReporter(LintResults.writer(resultsFile, reporter != null ? reporter : new DefaultReporter()));
+				}
+				
+				Path cacheFile = null;
+				if (options.hasOption("cache"))
+				{
+					cacheFile = Paths.get(path.resolve(path.cwd(), options.getOptionValue("cache-location", ".jshintcache")));
+					runOptions.setCache(LintCache.load(cacheFile));
+				}
+				
+				if (options.hasOption("watch"))
+				{
+					if (runOptions.isUseStdin())
+					{
+						cli.error("Can't watch standard input");
+						exit(1);
+					}
+					
+					// Request sent to the daemon would block it forever
+					if (ioPool != null)
+					{
+						cli.error("Can't watch files from the daemon");
+						exit(1);
+					}
+					
+					new Watcher(this, runOptions).watch();
+					exit(0);
+				}
+				
+				if (options.hasOption("merge"))
+				{
+					List<Path> resultsFiles = new ArrayList<Path>();
+					for (String arg : options.getArgs())
+					{
+						resultsFiles.add(Paths.get(path.resolve(path.cwd(), arg)));
+					}
+					passed = LintResults.merge(resultsFiles, reporter != null ? reporter : new DefaultReporter(), options.getOptionValue("verbose"));
+				}
+				else
+				{
+					passed = options.hasOption("batch") ? runBatch(runOptions) : run(runOptions);
+				}
+				
+				if (cacheFile != null)
+				{
+					LintCache cache = runOptions.getCache();
+					cache.save(cacheFile);
+					
+					if (options.hasOption("verbose"))
+					{
+						cli.error("Cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+					}
+				}
+				
+				if (runOptions.getStats() != null)
+				{
+					cli.error(runOptions.getStats().toString());
+				}
+				
+				if (runOptions.getProfiler() != null)
+				{
+					cli.error(runOptions.getProfiler().toString());
+				}
 				
 				exit(passed ? 0 : 2);
 			
@@ -960,6 +2020,7 @@ public class Cli
 	{
 		private String[] args; // CLI arguments
 		private UniversalContainer config; // Configuration object
+		private String configFile; // Path to the config file passed by --config, null if there is no such file
 		private JSHintReporter reporter; // Reporter object
 		private List<String> ignores; // A list of files/dirs to ignore (defaults to .jshintignores)
 		private String extensions; // A list of non-dot-js extensions to check
@@ -969,6 +2030,15 @@ public class Cli
 		private String prereq;
 		private boolean useStdin;
 		private String cwd;
+		private int threads; // A number of files linted concurrently
+		private LintCache cache; // Results of previous runs
+		private int shardIndex; // 1-based index of the part of files linted by this run
+		private int shardCount;
+		private LintProfile profile; // Data collected besides warnings
+		private int maxWarnings; // Linting stops after this number of warnings, 0 if there is no limit
+		private LintStats stats; // Sum of stats of linted files, null if they aren't collected
+		private LintMetricsListener metrics; // Receives metrics of the run, can be null
+		private LintProfiler profiler; // Sum of profiles of linted files, null if they aren't profiled
 		
 		public RunOptions()
 		{
@@ -982,6 +2052,10 @@ public class Cli
 			setFilename(null);
 			setUseStdin(false);
 			setCwd(null);
+			setThreads(1);
+			setShard(1, 1);
+			setProfile(null);
+			setMaxWarnings(0);
 		}
 		
 		public RunOptions(String[] args, UniversalContainer config, JSHintReporter reporter, List<String> ignores, String extensions, String verbose, String extract, String filename, String prereq, boolean useStdin)
@@ -997,6 +2071,40 @@ public class Cli
 			setPrereq(prereq);
 			setUseStdin(useStdin);
 			setCwd(null);
+			setThreads(1);
+			setShard(1, 1);
+			setProfile(null);
+			setMaxWarnings(0);
+		}
+		
+		/**
+		 * Creates a copy of options, so a run can be repeated with a different list of files.
+		 * 
+		 * @param opts options to copy.
+		 */
+		public RunOptions(RunOptions opts)
+		{
+			this.args = opts.args;
+			this.config = opts.config;
+			this.configFile = opts.configFile;
+			this.reporter = opts.reporter;
+			this.ignores = opts.ignores;
+			this.extensions = opts.extensions;
+			this.verbose = opts.verbose;
+			this.extract = opts.extract;
+			this.filename = opts.filename;
+			this.prereq = opts.prereq;
+			this.useStdin = opts.useStdin;
+			this.cwd = opts.cwd;
+			this.threads = opts.threads;
+			this.cache = opts.cache;
+			this.shardIndex = opts.shardIndex;
+			this.shardCount = opts.shardCount;
+			this.profile = opts.profile;
+			this.maxWarnings = opts.maxWarnings;
+			this.stats = opts.stats;
+			this.metrics = opts.metrics;
+			this.profiler = opts.profiler;
 		}
 		
 		public void setArgs(String[] args)
@@ -1008,6 +2116,11 @@ public class Cli
 		{
 			this.config = config;
 		}
+		
+		public void setConfigFile(String configFile)
+		{
+			this.configFile = configFile; // only the watcher loads it again, run uses config
+		}
 
 		public void setReporter(JSHintReporter reporter)
 		{
@@ -1016,7 +2129,7 @@ public class Cli
 
 		public void setIgnores(List<String> ignores)
 		{
-			this.ignores = ignores != null ? ignores : new ArrayList<String>();
+			this.ignores = ignores; // null means that ignores are loaded from .jshintignore
 		}
 
 		public void setExtensions(String extensions)
@@ -1053,6 +2166,47 @@ public class Cli
 		{
 			this.cwd = StringUtils.defaultString(cwd);
 		}
+		
+		public void setThreads(int threads)
+		{
+			this.threads = Math.max(threads, 1);
+		}
+		
+		public void setCache(LintCache cache)
+		{
+			this.cache = cache;
+		}
+		
+		public void setShard(int index, int count)
+		{
+			this.shardIndex = index;
+			this.shardCount = count;
+		}
+		
+		public void setProfile(LintProfile profile)
+		{
+			this.profile = profile != null ? profile : LintProfile.FULL;
+		}
+		
+		public void setMaxWarnings(int maxWarnings)
+		{
+			this.maxWarnings = Math.max(maxWarnings, 0);
+		}
+		
+		public void setStats(LintStats stats)
+		{
+			this.stats = stats;
+		}
+		
+		public void setMetrics(LintMetricsListener metrics)
+		{
+			this.metrics = metrics;
+		}
+		
+		public void setProfiler(LintProfiler profiler)
+		{
+			this.profiler = profiler;
+		}
 
 		public String[] getArgs()
 		{
@@ -1063,6 +2217,11 @@ public class Cli
 		{
 			return config;
 		}
+		
+		public String getConfigFile()
+		{
+			return configFile;
+		}
 
 		public JSHintReporter getReporter()
 		{
@@ -1108,6 +2267,150 @@ public class Cli
 		{
 			return cwd;
 		}
+		
+		public int getThreads()
+		{
+			return threads;
+		}
+		
+		public LintCache getCache()
+		{
+			return cache;
+		}
+		
+		public int getShardIndex()
+		{
+			return shardIndex;
+		}
+		
+		public int getShardCount()
+		{
+			return shardCount;
+		}
+		
+		public LintProfile getProfile()
+		{
+			return profile;
+		}
+		
+		public int getMaxWarnings()
+		{
+			return maxWarnings;
+		}
+		
+		public LintStats getStats()
+		{
+			return stats;
+		}
+		
+		public LintMetricsListener getMetrics()
+		{
+			return metrics;
+		}
+		
+		public LintProfiler getProfiler()
+		{
+			return profiler;
+		}
+	}
+	
+	/**
+	 * Filter of files by extensions and ignores.
+	 */
+	class FileFilter
+	{
+		private final Pattern ext;
+		private final IgnoreSet ignores;
+		
+		private FileFilter(Pattern ext, IgnoreSet ignores)
+		{
+			this.ext = ext;
+			this.ignores = ignores;
+		}
+		
+		boolean accept(String fp)
+		{
+			return !isIgnored(fp, ignores);
+		}
+		
+		boolean acceptDirectory(String dir)
+		{
+			return !isIgnored(dir, ignores, true);
+		}
+		
+		boolean acceptFile(String file)
+		{
+			return Reg.test(ext, file) && !isIgnored(file, ignores, false);
+		}
+	}
+	
+	/**
+	 * List of patterns for files to ignore, compiled for repeated matching.
+	 */
+	private static class IgnoreSet
+	{
+		private final Set<String> paths = new HashSet<String>(); // matched by equality
+		private final List<Minimatch> matchers = new ArrayList<Minimatch>();
+		private final List<String> dirs = new ArrayList<String>(); // matched as a prefix of directories
+		
+		private IgnoreSet(List<String> patterns)
+		{
+			for (String ip : patterns)
+			{
+				paths.add(ip);
+				matchers.add(Minimatch.compile(ip, Minimatch.NO_CASE | Minimatch.DOT));
+				
+				// PORT INFO: match regexp was moved to Reg class
+				if (Reg.isEndsWithOneOrZeroSlash(ip))
+				{
+					dirs.add(ip);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Result of linting of a prerequisite, it's either its globals, or its code,
+	 * if it has directives, which change options of the code depending on it.
+	 */
+	private static class Prereq
+	{
+		private final Map<String, Boolean> globals;
+		private final List<String> exporteds;
+		private final String code;
+		
+		private Prereq(JSHint jshint, String code)
+		{
+			boolean prepended = jshint.hasOptionDirectives();
+			this.globals = prepended ? Collections.<String, Boolean>emptyMap() : Collections.unmodifiableMap(jshint.getDeclaredGlobals());
+			this.exporteds = prepended ? Collections.<String>emptyList() : jshint.getDirectiveExporteds();
+			this.code = prepended ? code : null;
+		}
+	}
+	
+	private static class LintedFile
+	{
+		private String file;
+		private UniversalContainer config;
+		private LintCache cache;
+		private LintProfile profile;
+		private BooleanSupplier cancelled; // Linting of the file is stopped if it's true
+		private LintStats stats; // Stats of the run, which stats of the file are added to, null if they aren't collected
+		private LintMetricsListener metrics; // Listener of metrics of the run, can be null
+		private LintProfiler profiler; // Profiler of the run, which profile of the file is added to, null if files aren't profiled
+		private String code = "";
+		private Map<Integer, Integer> offsets = null;
+		private boolean unreadable = false;
+		private List<ReporterResult> errors = new ArrayList<ReporterResult>();
+		private List<DataSummary> data = new ArrayList<DataSummary>();
+		
+		private LintedFile(String file, UniversalContainer config, LintCache cache, LintProfile profile)
+		{
+			this.file = file;
+			this.config = config;
+			this.cache = cache;
+			this.profile = profile;
+		}
 	}
 	
 	public static class ExitException extends Exception
@@ -1131,6 +2434,8 @@ public class Cli
 		JSLINT_XML,
 		CHECKSTYLE,
 		UNIX,
-		NON_ERROR
+		NON_ERROR,
+		NDJSON,
+		SARIF
 	}
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package org.jshint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jshint.utils.IOUtils;
+
+/**
+ * Long-running linter process, which accepts lint requests from {@link DaemonClient}
+ * over a loopback socket, so JVM startup, class loading and JIT warm-up are paid only once.
+ *
+ * Port and a random access token are written to the daemon file, which is readable only by
+ * the owner, requests without the token are dropped. Requests are handled one by one, since
+ * reporters write directly to the standard output, which is redirected to the client for the
+ * duration of a request. Files of a single request are still linted concurrently on thread pools,
+ * which are shared between requests and warmed up on start. Daemon stops when there were no
+ * requests during the idle timeout.
+ */
+public class Daemon
+{
+	// Time to wait for the request, so broken client can't block the daemon
+	private static final int READ_TIMEOUT = 30000;
+	
+	private static final String WARM_UP_CODE = "var re = /^[a-z]+(\\d*)$/i;\n" +
+		"function check(values) {\n" +
+		"  return values.filter(function (v) { return re.test(v); }).map(v => v.length);\n" +
+		"}\n" +
+		"class Item { constructor(name) { this.name = name; } get size() { return check([this.name]); } }\n";
+	private static final int WARM_UP_ROUNDS = 10;
+	
+	private final Path daemonFile;
+	private final int port;
+	private final int idleTimeout;
+	private final int threads;
+	private final String token;
+	
+	private volatile ServerSocket server;
+	private ExecutorService io;
+	private ExecutorService cpu;
+	
+	/**
+	 * @param daemonFile  file where port and access token are stored for clients
+	 * @param port        port to listen on, if 0, then any free port is used
+	 * @param idleTimeout time in milliseconds after which idle daemon stops, if 0, then it never stops
+	 * @param threads     number of threads in each pool
+	 */
+	public Daemon(Path daemonFile, int port, int idleTimeout, int threads)
+	{
+		this.daemonFile = daemonFile;
+		this.port = port;
+		this.idleTimeout = idleTimeout;
+		this.threads = Math.max(threads, 1);
+		
+		byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		StringBuilder token = new StringBuilder();
+		for (byte b : bytes)
+		{
+			token.append(String.format("%02x", b));
+		}
+		this.token = token.toString();
+	}
+	
+	/**
+	 * Starts the daemon and blocks until it's stopped or idle timeout is reached.
+	 *
+	 * @throws IOException if daemon cannot listen on the port or write the daemon file.
+	 */
+	public void start() throws IOException
+	{
+		io = Executors.newFixedThreadPool(threads);
+		cpu = Executors.newFixedThreadPool(threads);
+		
+		try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress()))
+		{
+			this.server = server;
+			
+			warmUp();
+			writeDaemonFile(server.getLocalPort());
+			
+			server.setSoTimeout(idleTimeout);
+			
+			while (!server.isClosed())
+			{
+				Socket socket;
+				
+				try
+				{
+					socket = server.accept();
+				}
+				catch (SocketTimeoutException e)
+				{
+					break;
+				}
+				catch (SocketException e)
+				{
+					// Server socket was closed by stop()
+					if (server.isClosed()) break;
+					throw e;
+				}
+				
+				try (Socket client = socket)
+				{
+					handle(client);
+				}
+				catch (IOException e)
+				{
+					// Client went away, keep serving others
+				}
+			}
+		}
+		finally
+		{
+			io.shutdownNow();
+			cpu.shutdownNow();
+			deleteDaemonFile();
+		}
+	}
+	
+	/**
+	 * Stops the daemon, request which is currently handled is finished first.
+	 */
+	public void stop()
+	{
+		try
+		{
+			if (server != null) server.close();
+		}
+		catch (IOException e)
+		{
+			// Nothing to do, socket is closed anyway
+		}
+	}
+	
+	private void handle(Socket socket) throws IOException
+	{
+		socket.setSoTimeout(READ_TIMEOUT);
+		
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		
+		if (in.readInt() != DaemonClient.MAGIC || in.readInt() != DaemonClient.VERSION)
+		{
+			return;
+		}
+		
+		if (!MessageDigest.isEqual(DaemonClient.readBytes(in), token.getBytes(StandardCharsets.UTF_8)))
+		{
+			return;
+		}
+		
+		String cwd = DaemonClient.readString(in);
+		String[] args = new String[in.readInt()];
+		for (int i = 0; i < args.length; i++)
+		{
+			args[i] = DaemonClient.readString(in);
+		}
+		String stdin = in.readBoolean() ? DaemonClient.readString(in) : null;
+		
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		PrintStream stdout = new PrintStream(new FrameOutputStream(out, DaemonClient.FRAME_OUT), true, "UTF-8");
+		PrintStream stderr = new PrintStream(new FrameOutputStream(out, DaemonClient.FRAME_ERR), true, "UTF-8");
+		
+		PrintStream systemOut = System.out;
+		PrintStream systemErr = System.err;
+		int code;
+		
+		System.setOut(stdout);
+		System.setErr(stderr);
+		try
+		{
+			code = createCli(cwd, stdin).interpret(args);
+		}
+		catch (RuntimeException e)
+		{
+			// Daemon should survive any failure of a single request
+			stderr.println(e);
+			code = 1;
+		}
+		finally
+		{
+			System.setOut(systemOut);
+			System.setErr(systemErr);
+		}
+		
+		stdout.flush();
+		stderr.flush();
+		out.writeByte(DaemonClient.FRAME_EXIT);
+		out.writeInt(code);
+		out.flush();
+	}
+	
+	/**
+	 * Creates CLI for a single request, which resolves paths against the working directory
+	 * of the client and reads code from the standard input of the client.
+	 */
+	private Cli createCli(String cwd, String stdin)
+	{
+		IOUtils.PathUtils path = new IOUtils.PathUtils()
+		{
+			@Override
+			public String cwd()
+			{
+				return cwd;
+			}
+		};
+		
+		Cli cli = new Cli();
+		cli.setPathUtils(path);
+		cli.setShellUtils(new IOUtils.ShellUtils(path));
+		cli.setCliUtils(new IOUtils.CliUtils()
+		{
+			@Override
+			public String readFromStdin()
+			{
+				if (stdin == null) return null;
+				
+				// Lines are normalized in the same way as when reading from the real standard input
+				StringBuilder result = new StringBuilder();
+				try (BufferedReader reader = new BufferedReader(new StringReader(stdin)))
+				{
+					String line;
+					while ((line = reader.readLine()) != null)
+					{
+						result.append(line).append("\n");
+					}
+				}
+				catch (IOException e)
+				{
+					return null;
+				}
+				return result.toString();
+			}
+			
+			@Override
+			public BufferedReader openStdin()
+			{
+				return new BufferedReader(new StringReader(stdin != null ? stdin : ""));
+			}
+		});
+		cli.setPools(io, cpu);
+		
+		return cli;
+	}
+	
+	/**
+	 * Lints sample code on every pool thread, so classes are loaded and every thread
+	 * has its own regexp engine created before the first request.
+	 */
+	private void warmUp() throws IOException
+	{
+		// Barrier makes sure that every task is executed by a separate thread
+		CyclicBarrier barrier = new CyclicBarrier(threads);
+		List<Future<Void>> tasks = new ArrayList<Future<Void>>();
+		
+		for (ExecutorService pool : new ExecutorService[]{io, cpu})
+		{
+			barrier.reset();
+			tasks.clear();
+			
+			for (int i = 0; i < threads; i++)
+			{
+				tasks.add(pool.submit(() -> {
+					lintWarmUpCode();
+					barrier.await();
+					return null;
+				}));
+			}
+			
+			for (Future<Void> task : tasks)
+			{
+				try
+				{
+					task.get();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Warm-up was interrupted");
+				}
+				catch (ExecutionException e)
+				{
+					throw new IOException("Warm-up failed", e.getCause());
+				}
+			}
+		}
+		
+		// Requests which are linted serially are handled on this thread
+		lintWarmUpCode();
+	}
+	
+	private static void lintWarmUpCode() throws JSHintException
+	{
+		for (int i = 0; i < WARM_UP_ROUNDS; i++)
+		{
+			new JSHint().lint(WARM_UP_CODE, new LinterOptions().set("esversion", 6).set("undef", true).set("unused", true));
+		}
+	}
+	
+	private void writeDaemonFile(int port) throws IOException
+	{
+		Properties props = new Properties();
+		props.setProperty("port", String.valueOf(port));
+		props.setProperty("token", token);
+		
+		Path parent = daemonFile.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path tmp = Files.createTempFile(parent, ".jshintdaemon", ".tmp");
+		
+		try
+		{
+			// Token must not be readable by other users
+			Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+		}
+		catch (UnsupportedOperationException e)
+		{
+			// Not a POSIX file system, rely on the default permissions of the home directory
+		}
+		
+		try (OutputStream out = Files.newOutputStream(tmp))
+		{
+			props.store(out, "JSHint daemon");
+		}
+		Files.move(tmp, daemonFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	private void deleteDaemonFile()
+	{
+		// File could be already replaced by another daemon
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(daemonFile))
+		{
+			props.load(in);
+		}
+		catch (IOException e)
+		{
+			return;
+		}
+		
+		try
+		{
+			if (token.equals(props.getProperty("token"))) Files.deleteIfExists(daemonFile);
+		}
+		catch (IOException e)
+		{
+			// Stale file will be detected by the client
+		}
+	}
+	
+	/**
+	 * Wraps every written chunk into a frame of the given type.
+	 */
+	private static class FrameOutputStream extends OutputStream
+	{
+		private final DataOutputStream out;
+		private final byte type;
+		
+		private FrameOutputStream(DataOutputStream out, byte type)
+		{
+			this.out = out;
+			this.type = type;
+		}
+		
+		@Override
+		public void write(int b) throws IOException
+		{
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			if (len == 0) return;
+			
+			synchronized (out)
+			{
+				out.writeByte(type);
+				out.writeInt(len);
+				out.write(b, off, len);
+			}
+		}
+		
+		@Override
+		public void flush() throws IOException
+		{
+			synchronized (out)
+			{
+				out.flush();
+			}
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package org.jshint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Thin client for the lint daemon, which is started with <code>jshint --daemon</code>.
+ *
+ * It forwards command line arguments, working directory and standard input to the daemon
+ * and prints its output, so the linter is neither loaded nor warmed up in the client JVM.
+ * If the daemon isn't running, arguments are passed to the {@link Cli} in the same process.
+ *
+ * This class deliberately depends only on JDK classes, since loading of any linter class
+ * would defeat the purpose of the client.
+ */
+public class DaemonClient
+{
+	// Protocol of a single request:
+	// client -> daemon: MAGIC, VERSION, token, cwd, number of args, args, stdin flag, stdin bytes
+	// daemon -> client: sequence of frames, each frame is a type byte followed by the data,
+	//                   OUT and ERR frames carry chunks of output, EXIT frame carries exit code and ends the response
+	static final int MAGIC = 0x4A534864; // "JSHd"
+	static final int VERSION = 1;
+	
+	static final byte FRAME_OUT = 1;
+	static final byte FRAME_ERR = 2;
+	static final byte FRAME_EXIT = 3;
+	
+	static final String DAEMON_FILE_PROPERTY = "jshint.daemon.file";
+	
+	private static final int CONNECT_TIMEOUT = 1000;
+	
+	private DaemonClient() {}
+	
+	/**
+	 * Returns location of the file, where running daemon stores its port and access token.
+	 * Defaults to <code>.jshintdaemon</code> in the home directory, can be changed with
+	 * <code>jshint.daemon.file</code> system property.
+	 *
+	 * @return path to the daemon file.
+	 */
+	public static Path getDaemonFile()
+	{
+		String file = System.getProperty(DAEMON_FILE_PROPERTY);
+		return file != null ? Paths.get(file) : Paths.get(System.getProperty("user.home"), ".jshintdaemon");
+	}
+	
+	/**
+	 * Sends a lint request to the daemon.
+	 *
+	 * @param daemonFile file where daemon stores its port and access token
+	 * @param cwd        working directory, which is used to resolve relative paths in arguments
+	 * @param args       command line arguments
+	 * @param stdin      standard input, it's read only after connection is established
+	 *                   and only if arguments ask to lint it
+	 * @param out        stream for the standard output of the daemon
+	 * @param err        stream for the error output of the daemon
+	 * @return exit code.
+	 * @throws DaemonUnavailableException if daemon is not running, nothing is read from stdin in this case.
+	 * @throws IOException if connection was broken.
+	 */
+	public static int send(Path daemonFile, String cwd, String[] args, InputStream stdin, OutputStream out, OutputStream err) throws IOException
+	{
+		Properties daemon = new Properties();
+		
+		try (Socket socket = new Socket())
+		{
+			try (InputStream in = Files.newInputStream(daemonFile))
+			{
+				daemon.load(in);
+				int port = Integer.parseInt(daemon.getProperty("port", ""));
+				socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT);
+			}
+			catch (IOException | IllegalArgumentException e)
+			{
+				throw new DaemonUnavailableException(e);
+			}
+			
+			DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			request.writeInt(MAGIC);
+			request.writeInt(VERSION);
+			writeString(request, daemon.getProperty("token", ""));
+			writeString(request, cwd);
+			request.writeInt(args.length);
+			for (String arg : args)
+			{
+				writeString(request, arg);
+			}
+			request.writeBoolean(usesStdin(args));
+			if (usesStdin(args))
+			{
+				writeBytes(request, readAll(stdin));
+			}
+			request.flush();
+			
+			DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			while (true)
+			{
+				byte type = response.readByte();
+				
+				if (type == FRAME_EXIT)
+				{
+					return response.readInt();
+				}
+				
+				byte[] chunk = readBytes(response);
+				OutputStream target = type == FRAME_ERR ? err : out;
+				target.write(chunk);
+				target.flush();
+			}
+		}
+	}
+	
+	/**
+	 * Checks if arguments ask to lint standard input, in the same way as {@link Cli} does.
+	 *
+	 * @param args command line arguments.
+	 * @return true if standard input has to be sent to the daemon.
+	 */
+	static boolean usesStdin(String[] args)
+	{
+		for (String arg : args)
+		{
+			if (arg.equals("--batch")) return true;
+		}
+		return args.length > 0 && (args[args.length-1].equals("-") || args[args.length-1].equals("/dev/stdin"));
+	}
+	
+	static void writeString(DataOutputStream out, String s) throws IOException
+	{
+		writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException
+	{
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	static String readString(DataInputStream in) throws IOException
+	{
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+	
+	static byte[] readBytes(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0) throw new EOFException();
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+	
+	private static byte[] readAll(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int n;
+		while ((n = in.read(chunk)) != -1)
+		{
+			buffer.write(chunk, 0, n);
+		}
+		return buffer.toByteArray();
+	}
+	
+	public static void main(String[] args)
+	{
+		try
+		{
+			System.exit(send(getDaemonFile(), System.getProperty("user.dir"), args, System.in, System.out, System.err));
+		}
+		catch (DaemonUnavailableException e)
+		{
+			// Daemon isn't running or its file is stale, so lint in this process
+			Cli.main(args);
+		}
+		catch (IOException e)
+		{
+			System.err.println("Lost connection to daemon: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	public static class DaemonUnavailableException extends IOException
+	{
+		private static final long serialVersionUID = 2519183457611541383L;
+		
+		public DaemonUnavailableException(Throwable cause)
+		{
+			super(cause.getMessage(), cause);
+		}
+	}
+}
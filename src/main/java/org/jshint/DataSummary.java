@@ -24,6 +24,7 @@ public class DataSummary
 	private List<Token> unused;
 	private Map<String, Integer> member;
 	private String file = "";
+	private LintStats stats;
 	
 	DataSummary(UniversalContainer options)
 	{
@@ -126,6 +127,21 @@ public class DataSummary
 		this.file = StringUtils.defaultString(file);
 	}
 	
+	/**
+	 * Returns time of linting phases and size of the code.
+	 * 
+	 * @return stats or null if they weren't collected, see {@link JSHint#setStats(boolean)}.
+	 */
+	public LintStats getStats()
+	{
+		return stats;
+	}
+	
+	protected void setStats(LintStats stats)
+	{
+		this.stats = stats;
+	}
+	
 	@Override
 	public String toString()
 	{
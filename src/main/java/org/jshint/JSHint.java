@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +27,8 @@ import org.jshint.LinterOptions.Delimiter;
 import org.jshint.utils.EventContext;
 import org.jshint.utils.EventEmitter;
 import org.jshint.utils.JSHintModule;
+import org.jshint.utils.JSHintRule;
+import org.jshint.utils.RuleDispatcher;
 
 import com.github.jshaptic.js4j.ContainerFactory;
 import com.github.jshaptic.js4j.UniversalContainer;
@@ -74,8 +77,13 @@ public class JSHint
 
 	private List<String>						urls			= null;
 
+	private JSHintModule						style			= new Style();
 	private List<JSHintModule>					extraModules	= new ArrayList<JSHintModule>();
+	private List<LintMetricsListener>			metricsListeners	= new ArrayList<LintMetricsListener>();
+	private String							module			= null; // label of the module, which is executed now, for the profiler
+	private String							fileName		= null; // name of the linted code in Flight Recorder events, can be null
 	private EventEmitter						emitter			= new EventEmitter();
+	private RuleDispatcher						rules			= new RuleDispatcher();
 	private State								state			= new State();
 
 	private Boolean checkOption( String name, boolean isStable, Token t )
@@ -384,6 +392,19 @@ public class JSHint
 		{
 			combine( predefined, Vars.mocha );
 		}
+
+		refreshRules();
+	}
+
+
+
+	/**
+	 * Installs rules which are enabled by the current options, has to be called
+	 * every time when options are changed or restored.
+	 */
+	private void refreshRules()
+	{
+		rules.refresh( name -> getOption( name ) );
 	}
 
 
@@ -408,6 +429,17 @@ public class JSHint
 
 
 
+	// Stop linting with E067 when a budget is exceeded.
+	private void checkBudget( String[] exceeded, Token token )
+	{
+		if( exceeded != null )
+		{
+			quit( "E067", token, exceeded );
+		}
+	}
+
+
+
 	private void removeIgnoredMessages()
 	{
 		Map<Integer, Boolean> ignored = this.state.getIgnoredLines();
@@ -585,6 +617,7 @@ public class JSHint
 
 					blacklist.add( key );
 					predefined.remove( key );
+					optionDirectives = true;
 				}
 				else
 				{
@@ -593,6 +626,7 @@ public class JSHint
 			}
 
 			combine( predefined, predef );
+			directiveGlobals.putAll( predef );
 
 			for( String key: predef.keySet() )
 			{
@@ -617,11 +651,13 @@ public class JSHint
 				}
 
 				this.state.getFunct().getScope().addExported( e );
+				directiveExporteds.add( e );
 			}
 		}
 
 		if( directiveToken.getType() == Token.Type.MEMBERS )
 		{
+			optionDirectives = true;
 			if( membersOnly == null )
 				membersOnly = new HashMap<String, Boolean>();
 
@@ -651,6 +687,7 @@ public class JSHint
 		if( directiveToken.getType() == Token.Type.JSHINT || directiveToken.getType() == Token.Type.JSLINT ||
 				directiveToken.getType() == Token.Type.JSHINT_UNSTABLE )
 		{
+			optionDirectives = true;
 			for( int idx = 0; idx < body.size(); idx++ )
 			{
 				String[] g = body.get( idx ).split( ":", - 1 );
@@ -952,7 +989,7 @@ public class JSHint
 
 		while( j <= i )
 		{
-			t = lex.token();
+			t = lexToken();
 
 			// When the lexer is exhausted, this function should produce the "(end)"
 			// token, even in cases where the requested token is beyond the end of
@@ -1034,6 +1071,9 @@ public class JSHint
 	 */
 	private void advance( String expected, Token relatedToken )
 	{
+		this.state.checkCancelled();
+		checkBudget( this.state.checkTime(), this.state.currToken() );
+
 		Token nextToken = this.state.nextToken();
 
 		switch( this.state.currToken().getId() )
@@ -1089,7 +1129,7 @@ public class JSHint
 		{
 			this.state.setNextToken( lookahead.size() > 0 ? lookahead.remove( 0 ) : null );
 			if( this.state.nextToken() == null )
-				this.state.setNextToken( lex.token() );
+				this.state.setNextToken( lexToken() );
 
 			if( this.state.nextToken() == null ) // No more tokens left, give up
 			{
@@ -1108,7 +1148,15 @@ public class JSHint
 
 			if( this.state.nextToken().isSpecial() )
 			{
-				lintingDirective( this.state.nextToken(), this.state.currToken() );
+				LintStats.Phase previous = this.state.startPhase( LintStats.Phase.DIRECTIVES );
+				try
+				{
+					lintingDirective( this.state.nextToken(), this.state.currToken() );
+				}
+				finally
+				{
+					this.state.endPhase( previous );
+				}
 			}
 			else
 			{
@@ -1196,6 +1244,21 @@ public class JSHint
 	 * @param rbp - the right-binding power of the token to be consumed
 	 */
 	private Token expression( int context, int rbp )
+	{
+		checkBudget( this.state.enterExpression(), this.state.currToken() );
+		try
+		{
+			return parseExpression( context, rbp );
+		}
+		finally
+		{
+			this.state.exitExpression();
+		}
+	}
+
+
+
+	private Token parseExpression( int context, int rbp )
 	{
 		Token left = null;
 		boolean isArray = false;
@@ -2196,6 +2259,16 @@ public class JSHint
 	 * @return Whether the left hand side is OK
 	 */
 	private boolean checkLeftSideAssign( int context, Token left, Token assignToken, boolean allowDestructuring )
+	{
+		long started = this.state.startSection();
+		boolean result = checkAssignTarget( context, left, assignToken, allowDestructuring );
+		this.state.endSection( "JSHint.checkLeftSideAssign", started );
+		return result;
+	}
+
+
+
+	private boolean checkAssignTarget( int context, Token left, Token assignToken, boolean allowDestructuring )
 	{
 		assignToken = ObjectUtils.defaultIfNull( assignToken, left );
 
@@ -3131,6 +3204,10 @@ public class JSHint
 		{
 			warning( "W036", this.state.currToken(), m );
 		}
+		if( ! this.state.getProfile().collectsSummary() )
+		{
+			return;
+		}
 		if( member.get( m ) != null )
 		{
 			member.put( m, member.get( m ) + 1 );
@@ -5636,7 +5713,11 @@ public class JSHint
 		Functor f = this.state.getFunct();
 		token = this.state.currToken();
 
-		functions.add( this.state.getFunct() );
+		// Functions are kept only for the summary, metrics are checked when the function ends
+		if( this.state.getProfile().collectsSummary() )
+		{
+			functions.add( this.state.getFunct() );
+		}
 
 		// So that the function is available to itself and referencing itself is not
 		// seen as a closure, add the function name to a new scope, but do not
@@ -5703,6 +5784,7 @@ public class JSHint
 		this.state.getFunct().setUnusedOption( this.state.getOption().get( "unused" ) );
 		this.state.setOption( oldOption );
 		this.state.setIgnored( oldIgnored );
+		refreshRules();
 		this.state.getFunct().setLast( this.state.currToken().getLine() );
 		this.state.getFunct().setLastCharacter( this.state.currToken().getCharacter() );
 
@@ -5801,6 +5883,7 @@ public class JSHint
 	// For example: if (a = 1) { ... }
 	private void checkCondAssignment( Token expr )
 	{
+		long started = this.state.startSection();
 		String id = null;
 		boolean paren = false;
 		if( expr != null )
@@ -5837,6 +5920,7 @@ public class JSHint
 					}
 			}
 		}
+		this.state.endSection( "JSHint.checkCondAssignment", started );
 	}
 
 
@@ -8465,6 +8549,74 @@ public class JSHint
 
 
 
+	private void notifyMetrics( long nanos )
+	{
+		Map<String, Integer> codes = countWarnings( errors );
+
+		for( LintMetricsListener listener: metricsListeners )
+		{
+			listener.fileLinted( tokens, lines, nanos, codes );
+		}
+	}
+
+
+
+	/**
+	 * Counts warnings by their code, as they are passed to metrics listeners.
+	 * 
+	 * @param warnings list of warnings.
+	 * @return unmodifiable map of numbers of warnings by code.
+	 */
+	static Map<String, Integer> countWarnings( List<LinterWarning> warnings )
+	{
+		Map<String, Integer> codes = new HashMap<String, Integer>();
+		for( LinterWarning w: warnings )
+		{
+			codes.merge( w.getCode(), 1, Integer::sum );
+		}
+		return Collections.unmodifiableMap( codes );
+	}
+
+
+
+	/**
+	 * Passes lexer event to listeners and rules of modules.
+	 * 
+	 * @param name name of the event.
+	 * @param ev   context of the event.
+	 */
+	private void dispatchToModules( String name, EventContext ev ) throws JSHintException
+	{
+		Object event = LintEvents.beginModule();
+		emitter.emit( name, ev );
+		rules.dispatch( name, ev, this );
+		LintEvents.commitModule( event, name, null );
+	}
+
+
+
+	/**
+	 * Reads the next token, time of lexing is counted separately from parsing.
+	 * 
+	 * @return next token or null if there are no tokens left.
+	 */
+	private Token lexToken() throws JSHintException
+	{
+		LintStats.Phase previous = this.state.startPhase( LintStats.Phase.LEXING );
+		try
+		{
+			Token token = lex.token();
+			checkBudget( this.state.checkTokens(), token != null ? token : this.state.currToken() );
+			return token;
+		}
+		finally
+		{
+			this.state.endPhase( previous );
+		}
+	}
+
+
+
 	private String escapeRegex( String str )
 	{
 		return Reg.escapeRegexpChars( str ); // PORT INFO: replace regexp was moved to Reg class
@@ -8474,6 +8626,11 @@ public class JSHint
 	private List<InternalSource>	internals	= new ArrayList<InternalSource>(); // "internal" scripts, like eval containing a static string
 	private Set<String>				blacklist	= new HashSet<String>();
 	private String					scriptScope	= "";
+	private int						tokens		= 0; // number of tokens in the main code, evaluated code isn't counted
+	private int						lines		= 0;
+	private Map<String, Boolean>	directiveGlobals	= new LinkedHashMap<String, Boolean>(); // globals from /*global ... */ directives of the main code
+	private List<String>			directiveExporteds	= new ArrayList<String>(); // names from /*exported ... */ directives of the main code
+	private boolean					optionDirectives	= false; // true if the main code has directives, which change options of the code after them
 
 	public boolean lint( String s ) throws JSHintException
 	{
@@ -8502,6 +8659,9 @@ public class JSHint
 			return false;
 		}
 
+		Object event = LintEvents.beginFile();
+		String source = s;
+
 		for( Delimiter delimiterPair: o.getIgnoreDelimiters() )
 		{
 			if( StringUtils.isEmpty( delimiterPair.getStart() ) || StringUtils.isEmpty( delimiterPair.getEnd() ) )
@@ -8518,7 +8678,9 @@ public class JSHint
 		}
 		;
 
-		return run( new Lexer( s, this.state ), o, g );
+		boolean passed = run( new Lexer( s, this.state ), o, g );
+		LintEvents.commitFile( event, fileName, source, tokens, errors.size() );
+		return passed;
 	}
 
 
@@ -8552,7 +8714,10 @@ public class JSHint
 
 		//JSHINT_BUG: where is ignore delimiters for source array??
 
-		return run( new Lexer( s, this.state ), o, g );
+		Object event = LintEvents.beginFile();
+		boolean passed = run( new Lexer( s, this.state ), o, g );
+		LintEvents.commitFile( event, fileName, s, tokens, errors.size() );
+		return passed;
 	}
 
 
@@ -8563,7 +8728,6 @@ public class JSHint
 		buildSyntaxTable();
 		ecmaScriptParser();
 		buildStatementTable();
-		addModule( new Style() );
 
 		this.state.reset();
 
@@ -8576,6 +8740,9 @@ public class JSHint
 			errors = new ArrayList<LinterWarning>();
 			internals = new ArrayList<InternalSource>();
 			blacklist = new HashSet<String>();
+			directiveGlobals = new LinkedHashMap<String, Boolean>();
+			directiveExporteds = new ArrayList<String>();
+			optionDirectives = false;
 			scriptScope = "(main)";
 		}
 
@@ -8637,10 +8804,19 @@ public class JSHint
 		lookahead = new ArrayList<Token>();
 
 		emitter.removeAllListeners();
+		rules.clear();
 		for( JSHintModule func: extraModules )
 		{
+			Object event = LintEvents.beginModule();
+			long started = this.state.startSection();
+			module = LintProfiler.label( func );
 			func.execute( this );
+			this.state.endSection( "module " + module, started );
+			LintEvents.commitModule( event, null, func.getClass().getName() );
 		}
+		module = LintProfiler.label( style );
+		style.execute( this );
+		module = null;
 
 		this.state.setNextToken( this.state.getSyntax().get( "(begin)" ) );
 		this.state.setCurrToken( this.state.nextToken() );
@@ -8653,6 +8829,13 @@ public class JSHint
 	{
 		lex = l;
 
+		// Evaluated code is linted by nested runs, which are counted in stats of the main run
+		if( scriptScope.equals( "(main)" ) )
+		{
+			this.state.startStats();
+		}
+		long started = metricsListeners.size() > 0 ? System.nanoTime() : 0;
+
 		lex.on( "warning", new LexerEventListener()
 		{
 
@@ -8689,7 +8872,7 @@ public class JSHint
 			@Override
 			public void accept( EventContext ev ) throws JSHintException
 			{
-				emitter.emit( "Identifier", ev );
+				dispatchToModules( "Identifier", ev );
 			}
 		} );
 
@@ -8699,7 +8882,7 @@ public class JSHint
 			@Override
 			public void accept( EventContext ev ) throws JSHintException
 			{
-				emitter.emit( "String", ev );
+				dispatchToModules( "String", ev );
 			}
 		} );
 
@@ -8709,7 +8892,7 @@ public class JSHint
 			@Override
 			public void accept( EventContext ev ) throws JSHintException
 			{
-				emitter.emit( "Number", ev );
+				dispatchToModules( "Number", ev );
 			}
 		} );
 
@@ -8733,6 +8916,8 @@ public class JSHint
 			// reset values
 			parseCommaFirst = true;
 
+			this.state.startBudgets();
+
 			advance();
 			switch( this.state.nextToken().getId() )
 			{
@@ -8777,7 +8962,26 @@ public class JSHint
 		// Loop over the listed "internals", and check them as well.
 		if( scriptScope.equals( "(main)" ) )
 		{
-			lintEvalCode( internals, o, g );
+			tokens = this.state.getTokens();
+			lines = this.state.getLines().length;
+			this.state.countStats();
+			if( internals.size() > 0 )
+			{
+				this.state.startPhase( LintStats.Phase.EVAL );
+			}
+			try
+			{
+				lintEvalCode( internals, o, g );
+			}
+			finally
+			{
+				this.state.endPhase( null );
+			}
+
+			if( metricsListeners.size() > 0 )
+			{
+				notifyMetrics( System.nanoTime() - started );
+			}
 		}
 
 		return errors.size() == 0;
@@ -8808,6 +9012,60 @@ public class JSHint
 
 
 
+	/**
+	 * Returns globals defined by the last linted code, they can be used as predefined globals
+	 * for the code which depends on it: bindings declared in the global scope, globals from
+	 * <code>global</code> directives and implied globals. Implied globals are collected only
+	 * with {@link LintProfile#FULL} profile.
+	 * 
+	 * @return map of global names, where value is false for read-only globals.
+	 */
+	public Map<String, Boolean> getDeclaredGlobals()
+	{
+		Map<String, Boolean> globals = new LinkedHashMap<String, Boolean>( directiveGlobals );
+		for( ImpliedGlobal implied: this.state.getFunct().getScope().getImpliedGlobals() )
+		{
+			globals.putIfAbsent( implied.getName(), true );
+		}
+		globals.putAll( this.state.getFunct().getScope().getDeclaredGlobals() );
+		return globals;
+	}
+
+
+
+	/**
+	 * Returns names from <code>exported</code> directives of the last linted code.
+	 * 
+	 * @return list of exported names.
+	 */
+	public List<String> getDirectiveExporteds()
+	{
+		return Collections.unmodifiableList( directiveExporteds );
+	}
+
+
+
+	/**
+	 * Checks if the last linted code has directives, which would change linting of code
+	 * appended to it and which cannot be passed as globals, i.e. <code>jshint</code>,
+	 * <code>jslint</code> and <code>members</code> directives, or removal of a global.
+	 * 
+	 * @return true if there are such directives.
+	 */
+	public boolean hasOptionDirectives()
+	{
+		return optionDirectives;
+	}
+
+
+
+	int getTokens()
+	{
+		return tokens;
+	}
+
+
+
 	public List<InternalSource> getInternals()
 	{
 		return Collections.unmodifiableList( internals );
@@ -8854,7 +9112,7 @@ public class JSHint
 	{
 		for( String name: names.split( " ", - 1 ) )
 		{
-			emitter.on( name, listener );
+			emitter.on( name, this.state.getProfiler() != null ? this.state.getProfiler().wrap( module, name, listener ) : listener );
 		}
 	}
 
@@ -8868,8 +9126,123 @@ public class JSHint
 
 
 
+	/**
+	 * Adds a listener, which receives metrics of every code linted after that.
+	 * 
+	 * @param listener listener of metrics.
+	 */
+	public void addMetricsListener( LintMetricsListener listener )
+	{
+		metricsListeners.add( listener );
+	}
+
+
+
+	/**
+	 * Registers a rule for the current run, should be called from {@link JSHintModule#execute(JSHint)}.
+	 * 
+	 * @param rule rule to be dispatched while its options enable it.
+	 */
+	public void addRule( JSHintRule rule )
+	{
+		rules.add( this.state.getProfiler() != null ? this.state.getProfiler().wrap( module, rule ) : rule );
+	}
+
+
+
+	/**
+	 * Sets how much data is collected while linting, profile is kept for all next runs.
+	 * 
+	 * @param profile profile of the next runs.
+	 */
+	public void setProfile( LintProfile profile )
+	{
+		this.state.setProfile( profile != null ? profile : LintProfile.FULL );
+	}
+
+
+
+	public LintProfile getProfile()
+	{
+		return this.state.getProfile();
+	}
+
+
+
+	/**
+	 * Sets a profiler, which measures listeners and rules of modules and the main checks,
+	 * profiler is kept for all next runs.
+	 * 
+	 * @param profiler profiler of the next runs, null if linting shouldn't be profiled.
+	 */
+	public void setProfiler( LintProfiler profiler )
+	{
+		this.state.setProfiler( profiler );
+	}
+
+
+
+	/**
+	 * Sets a flag, which is checked while linting, when it becomes true linting stops
+	 * with {@link LintCancelledException}, flag is kept for all next runs.
+	 * 
+	 * @param cancelled flag of cancellation, null if linting can't be cancelled.
+	 */
+	public void setCancellation( BooleanSupplier cancelled )
+	{
+		this.state.setCancellation( cancelled );
+	}
+
+
+
+	/**
+	 * Sets name of the linted code, it's only used to label Flight Recorder events of linting,
+	 * name is kept for all next runs.
+	 * 
+	 * @param fileName name of the file, null if the code has no name.
+	 */
+	public void setFileName( String fileName )
+	{
+		this.fileName = fileName;
+	}
+
+
+
+	/**
+	 * Sets if time of linting phases and size of the code are collected, they are returned
+	 * by {@link DataSummary#getStats()}, setting is kept for all next runs.
+	 * 
+	 * @param enabled true if stats should be collected.
+	 */
+	public void setStats( boolean enabled )
+	{
+		this.state.setStats( enabled );
+	}
+
+
+
 	// Data summary.
 	public DataSummary generateSummary()
+	{
+		DataSummary data;
+
+		LintStats.Phase previous = this.state.startPhase( LintStats.Phase.SUMMARY );
+		try
+		{
+			data = summary();
+		}
+		finally
+		{
+			this.state.endPhase( previous );
+		}
+
+		data.setStats( this.state.getStats() );
+		return data;
+	}
+
+
+
+	private DataSummary summary()
 	{
 		DataSummary data = new DataSummary( this.state.getOption() );
 
@@ -8883,6 +9256,11 @@ public class JSHint
 			data.setJson( true );
 		}
 
+		if( ! this.state.getProfile().collectsSummary() )
+		{
+			return data;
+		}
+
 		List<ImpliedGlobal> impliedGlobals = this.state.getFunct().getScope().getImpliedGlobals();
 		if( impliedGlobals.size() > 0 )
 		{
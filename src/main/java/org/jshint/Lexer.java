@@ -59,7 +59,8 @@ public class Lexer
 {
 
 	// PORT INFO: Static javascript engine, which is used to validate regexps
-	private static final ScriptEngine jsEngine = new ScriptEngineManager().getEngineByName( "nashorn" );
+	// Nashorn engine isn't thread-safe, so every linting thread gets its own instance
+	private static final ThreadLocal<ScriptEngine> jsEngine = ThreadLocal.withInitial( () -> new ScriptEngineManager().getEngineByName( "nashorn" ) );
 
 	// Some of these token types are from JavaScript Parser API
 	// while others are specific to JSHint parser.
@@ -2179,7 +2180,8 @@ public class Lexer
 		// and it doesn't require external dependency so it's used as a validator of javascript regular expressions
 		try
 		{
-			jsEngine.eval( "/" + body.toString() + "/" + es5Flags, jsEngine.createBindings() );
+			ScriptEngine engine = jsEngine.get();
+			engine.eval( "/" + body.toString() + "/" + es5Flags, engine.createBindings() );
 		}
 		catch( Exception err )
 		{
@@ -2235,6 +2237,8 @@ public class Lexer
 	 */
 	public LexerToken next( AsyncTrigger checks ) throws JSHintException
 	{
+		this.state.countToken();
+
 		from = character;
 
 		// Move to the next non-space character.
@@ -2260,7 +2264,22 @@ public class Lexer
 
 		// Methods that don't move the character pointer.
 
-		match = scanRegExp( checks );
+		// Regular expressions are validated while they are scanned, peek() isn't used,
+		// because it allocates a string for every token
+		boolean slash = input.length() > 0 && input.charAt( 0 ) == '/';
+		LintStats.Phase previous = slash ? this.state.startPhase( LintStats.Phase.REGEX ) : null;
+		Object event = slash ? LintEvents.beginRegex() : null;
+		try
+		{
+			match = scanRegExp( checks );
+		}
+		finally
+		{
+			if( previous != null )
+				this.state.endPhase( previous );
+		}
+		if( match != null )
+			LintEvents.commitRegex( event, match.getValue().length() );
 		if( match == null )
 			match = scanPunctuator();
 		if( match == null )
@@ -2460,6 +2479,8 @@ public class Lexer
 	 */
 	public Token token() throws JSHintException
 	{
+		this.state.checkCancelled();
+
 		EventContext context;
 		AsyncTrigger checks = new AsyncTrigger();
 
@@ -0,0 +1,489 @@
+package org.jshint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import com.github.jshaptic.js4j.JsonParser;
+import com.github.jshaptic.js4j.UniversalContainer;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent storage of linting results, which allows to skip linting of files
+ * that weren't changed since the previous run.
+ *
+ * Every entry is keyed by the file path and holds a hash of everything that was passed
+ * to the linter: code, effective options and globals, including the ones declared by
+ * prerequisites. Whole cache is discarded when it was written by a different linter version
+ * or in a different format, so upgrading the linter always invalidates previous results.
+ */
+public class LintCache
+{
+	// Has to be increased every time when serialized form of entries is changed
+	private static final int FORMAT = 1;
+	static final String VERSION = loadVersion();
+	
+	private Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private AtomicInteger hits = new AtomicInteger();
+	private AtomicInteger misses = new AtomicInteger();
+	private String version;
+	
+	public LintCache()
+	{
+		this(VERSION);
+	}
+	
+	/**
+	 * @param version version of the linter which produced cached results.
+	 */
+	public LintCache(String version)
+	{
+		this.version = StringUtils.defaultString(version);
+	}
+	
+	private static String loadVersion()
+	{
+		try (InputStream in = LintCache.class.getResourceAsStream("/package.properties"))
+		{
+			Properties prop = new Properties();
+			if (in != null) prop.load(in);
+			return prop.getProperty("version", "");
+		}
+		catch (IOException e)
+		{
+			return "";
+		}
+	}
+	
+	/**
+	 * Calculates a key of the linting input.
+	 *
+	 * @param code    code which is passed to the linter.
+	 * @param options effective linting options.
+	 * @param globals effective globals.
+	 * @return hash of the input.
+	 */
+	public static String hash(String code, UniversalContainer options, Map<String, Boolean> globals)
+	{
+		return hash(code, options, globals, LintProfile.FULL);
+	}
+	
+	/**
+	 * Calculates a key of the linting input, results of partial profiles don't have a full summary,
+	 * so they are never reused by runs with the full profile.
+	 *
+	 * @param code    code which is passed to the linter.
+	 * @param options effective linting options.
+	 * @param globals effective globals.
+	 * @param profile profile of the linter.
+	 * @return hash of the input.
+	 */
+	public static String hash(String code, UniversalContainer options, Map<String, Boolean> globals, LintProfile profile)
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(StringUtils.defaultString(code), StandardCharsets.UTF_8);
+		hasher.putByte((byte)0);
+		hasher.putString(JsonParser.stringify(options), StandardCharsets.UTF_8);
+		hasher.putByte((byte)0);
+		hasher.putString(new TreeMap<String, Boolean>(globals).toString(), StandardCharsets.UTF_8);
+		if (profile != LintProfile.FULL)
+		{
+			hasher.putByte((byte)0);
+			hasher.putString(profile.name(), StandardCharsets.UTF_8);
+		}
+		return hasher.hash().toString();
+	}
+	
+	/**
+	 * Looks for results of the file, which was linted with exactly the same input.
+	 *
+	 * @param file path to the linted file.
+	 * @param hash hash of the linting input.
+	 * @return cached linting summary or null if there is no such entry.
+	 */
+	public DataSummary get(String file, String hash)
+	{
+		Entry entry = entries.get(file);
+		
+		if (entry == null || !entry.hash.equals(hash))
+		{
+			misses.incrementAndGet();
+			return null;
+		}
+		
+		hits.incrementAndGet();
+		
+		try
+		{
+			DataSummary data = readSummary(new DataInputStream(new ByteArrayInputStream(entry.data)));
+			data.setFile(file);
+			return data;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Stores results of the linted file. Summary is serialized immediately, so
+	 * it can be modified afterwards.
+	 *
+	 * @param file path to the linted file.
+	 * @param hash hash of the linting input.
+	 * @param data linting summary.
+	 */
+	public void put(String file, String hash, DataSummary data)
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		try (DataOutputStream out = new DataOutputStream(bytes))
+		{
+			writeSummary(out, data);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		
+		entries.put(file, new Entry(hash, bytes.toByteArray()));
+	}
+	
+	public int getHits()
+	{
+		return hits.get();
+	}
+	
+	public int getMisses()
+	{
+		return misses.get();
+	}
+	
+	public int size()
+	{
+		return entries.size();
+	}
+	
+	/**
+	 * Loads cache from the file for the current linter version.
+	 *
+	 * @param path path to the cache file.
+	 * @return loaded cache.
+	 */
+	public static LintCache load(Path path)
+	{
+		return load(path, VERSION);
+	}
+	
+	/**
+	 * Loads cache from the file. Missing, broken or outdated file results in an empty cache.
+	 *
+	 * @param path    path to the cache file.
+	 * @param version version of the linter which will use the cache.
+	 * @return loaded cache.
+	 */
+	public static LintCache load(Path path, String version)
+	{
+		LintCache cache = new LintCache(version);
+		
+		if (!Files.isRegularFile(path))
+		{
+			return cache;
+		}
+		
+		try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(path))))
+		{
+			if (in.readInt() != FORMAT || !in.readUTF().equals(cache.version))
+			{
+				return cache;
+			}
+			
+			int size = in.readInt();
+			for (int i = 0; i < size; i++)
+			{
+				String file = in.readUTF();
+				String hash = in.readUTF();
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				cache.entries.put(file, new Entry(hash, data));
+			}
+		}
+		catch (IOException e)
+		{
+			cache.entries.clear();
+		}
+		
+		return cache;
+	}
+	
+	/**
+	 * Writes cache to the file.
+	 *
+	 * @param path path to the cache file.
+	 * @throws IOException if file cannot be written.
+	 */
+	public void save(Path path) throws IOException
+	{
+		try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(path))))
+		{
+			out.writeInt(FORMAT);
+			out.writeUTF(version);
+			
+			Map<String, Entry> snapshot = new HashMap<String, Entry>(entries);
+			out.writeInt(snapshot.size());
+			for (Map.Entry<String, Entry> e : snapshot.entrySet())
+			{
+				out.writeUTF(e.getKey());
+				out.writeUTF(e.getValue().hash);
+				out.writeInt(e.getValue().data.length);
+				out.write(e.getValue().data);
+			}
+		}
+	}
+	
+	static void writeSummary(DataOutputStream out, DataSummary data) throws IOException
+	{
+		writeString(out, JsonParser.stringify(data.getOptions()));
+		out.writeBoolean(data.isJson());
+		
+		out.writeInt(data.getErrors().size());
+		for (LinterWarning w : data.getErrors())
+		{
+			writeString(out, w.getId());
+			writeString(out, w.getRaw());
+			writeString(out, w.getCode());
+			writeString(out, w.getReason());
+			writeString(out, w.getEvidence());
+			out.writeInt(w.getLine());
+			out.writeInt(w.getCharacter());
+			writeString(out, w.getScope());
+			
+			// Only substitutions which were actually passed to the warning are stored
+			String[] substitutions = w.getSubstitutions();
+			int count = substitutions != null ? substitutions.length : -1;
+			while (count > 0 && substitutions[count - 1] == null) count--;
+			out.writeInt(count);
+			for (int i = 0; i < count; i++)
+			{
+				writeString(out, StringUtils.defaultString(substitutions[i]));
+			}
+		}
+		
+		out.writeInt(data.getImplieds().size());
+		for (ImpliedGlobal implied : data.getImplieds())
+		{
+			writeString(out, implied.getName());
+			out.writeInt(implied.getLines().size());
+			for (int line : implied.getLines())
+			{
+				out.writeInt(line);
+			}
+		}
+		
+		writeStrings(out, data.getUrls());
+		writeStrings(out, data.getGlobals());
+		
+		out.writeInt(data.getUnused().size());
+		for (Token t : data.getUnused())
+		{
+			writeString(out, t.getName());
+			out.writeInt(t.getLine());
+			out.writeInt(t.getCharacter());
+		}
+		
+		out.writeInt(data.getMember().size());
+		for (Map.Entry<String, Integer> member : data.getMember().entrySet())
+		{
+			writeString(out, member.getKey());
+			out.writeInt(member.getValue());
+		}
+		
+		out.writeInt(data.getFunctions().size());
+		for (DataSummary.Function f : data.getFunctions())
+		{
+			writeString(out, f.getName());
+			writeStrings(out, f.getParam());
+			out.writeInt(f.getLine());
+			out.writeInt(f.getCharacter());
+			out.writeInt(f.getLast());
+			out.writeInt(f.getLastCharacter());
+			out.writeInt(f.getMetrics().getComplexity());
+			out.writeInt(f.getMetrics().getParameters());
+			out.writeInt(f.getMetrics().getStatements());
+		}
+	}
+	
+	static DataSummary readSummary(DataInputStream in) throws IOException
+	{
+		DataSummary data = new DataSummary(JsonParser.parse(readString(in)));
+		data.setJson(in.readBoolean());
+		
+		int size = in.readInt();
+		if (size > 0)
+		{
+			List<LinterWarning> errors = new ArrayList<LinterWarning>(size);
+			for (int i = 0; i < size; i++)
+			{
+				LinterWarning w = new LinterWarning();
+				w.setId(readString(in));
+				w.setRaw(readString(in));
+				w.setCode(readString(in));
+				w.setReason(readString(in));
+				w.setEvidence(readString(in));
+				w.setLine(in.readInt());
+				w.setCharacter(in.readInt());
+				w.setScope(readString(in));
+				
+				int count = in.readInt();
+				if (count >= 0)
+				{
+					String[] substitutions = new String[count];
+					for (int j = 0; j < count; j++)
+					{
+						substitutions[j] = readString(in);
+					}
+					w.setSubstitutions(substitutions);
+				}
+				
+				errors.add(w);
+			}
+			data.setErrors(errors);
+		}
+		
+		size = in.readInt();
+		if (size > 0)
+		{
+			List<ImpliedGlobal> implieds = new ArrayList<ImpliedGlobal>(size);
+			for (int i = 0; i < size; i++)
+			{
+				String name = readString(in);
+				Integer[] lines = new Integer[in.readInt()];
+				for (int j = 0; j < lines.length; j++)
+				{
+					lines[j] = in.readInt();
+				}
+				implieds.add(new ImpliedGlobal(name, lines));
+			}
+			data.setImplieds(implieds);
+		}
+		
+		List<String> urls = readStrings(in);
+		if (urls.size() > 0)
+		{
+			data.setUrls(urls);
+		}
+		
+		List<String> globals = readStrings(in);
+		if (globals.size() > 0)
+		{
+			data.setGlobals(new LinkedHashSet<String>(globals));
+		}
+		
+		size = in.readInt();
+		if (size > 0)
+		{
+			List<Token> unused = new ArrayList<Token>(size);
+			for (int i = 0; i < size; i++)
+			{
+				unused.add(new Token(readString(in), in.readInt(), in.readInt()));
+			}
+			data.setUnused(unused);
+		}
+		
+		size = in.readInt();
+		if (size > 0)
+		{
+			Map<String, Integer> member = new HashMap<String, Integer>(size);
+			for (int i = 0; i < size; i++)
+			{
+				member.put(readString(in), in.readInt());
+			}
+			data.setMember(member);
+		}
+		
+		size = in.readInt();
+		for (int i = 0; i < size; i++)
+		{
+			DataSummary.Function f = new DataSummary.Function();
+			f.setName(readString(in));
+			f.setParam(readStrings(in));
+			f.setLine(in.readInt());
+			f.setCharacter(in.readInt());
+			f.setLast(in.readInt());
+			f.setLastCharacter(in.readInt());
+			f.setMetrics(new DataSummary.Metrics(in.readInt(), in.readInt(), in.readInt()));
+			data.addFunction(f);
+		}
+		
+		return data;
+	}
+	
+	// DataOutputStream.writeUTF is limited to 64K, while warning evidence can be a line of any length
+	private static void writeString(DataOutputStream out, String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	private static String readString(DataInputStream in) throws IOException
+	{
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static void writeStrings(DataOutputStream out, Iterable<String> values) throws IOException
+	{
+		List<String> list = new ArrayList<String>();
+		values.forEach(list::add);
+		out.writeInt(list.size());
+		for (String value : list)
+		{
+			writeString(out, value);
+		}
+	}
+	
+	private static List<String> readStrings(DataInputStream in) throws IOException
+	{
+		int size = in.readInt();
+		List<String> values = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++)
+		{
+			values.add(readString(in));
+		}
+		return values;
+	}
+	
+	private static class Entry
+	{
+		private String hash;
+		private byte[] data;
+		
+		private Entry(String hash, byte[] data)
+		{
+			this.hash = hash;
+			this.data = data;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package org.jshint;
+
+/**
+ * Thrown by the linter when it's cancelled before linting is finished,
+ * see {@link JSHint#setCancellation(java.util.function.BooleanSupplier)}.
+ */
+public class LintCancelledException extends RuntimeException
+{
+	private static final long serialVersionUID = 4431582873326905151L;
+	
+	public LintCancelledException()
+	{
+		super("Linting was cancelled");
+	}
+}
@@ -0,0 +1,260 @@
+package org.jshint;
+
+import java.nio.charset.StandardCharsets;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events of the linter, they are recorded by any JFR recording,
+ * which enables them, e.g. <code>-XX:StartFlightRecording</code>, without any agent.
+ *
+ * Runtimes without <code>jdk.jfr</code> (Java 8 before update 262) are supported too,
+ * event classes are loaded only after it's checked, that JFR is available, otherwise
+ * all methods do nothing. Methods return null instead of an event, if it isn't enabled
+ * by any recording, so linting isn't slowed down while nothing is recorded.
+ */
+final class LintEvents
+{
+	private static final boolean AVAILABLE = isAvailable();
+	
+	private LintEvents() {}
+	
+	private static boolean isAvailable()
+	{
+		try
+		{
+			Class.forName("jdk.jfr.FlightRecorder");
+			return true;
+		}
+		catch (ClassNotFoundException | LinkageError e)
+		{
+			return false;
+		}
+	}
+	
+	static Object beginFile()
+	{
+		return AVAILABLE ? FileEvent.start() : null;
+	}
+	
+	static void commitFile(Object event, String file, String code, int tokens, int warnings)
+	{
+		if (event != null)
+		{
+			FileEvent.commit(event, file, code, tokens, warnings);
+		}
+	}
+	
+	static void commitFile(Object event, String file, String[] lines, int tokens, int warnings)
+	{
+		if (event != null)
+		{
+			// Lines are joined only when the event is recorded
+			FileEvent.commit(event, file, String.join("\n", lines), tokens, warnings);
+		}
+	}
+	
+	static Object beginRegex()
+	{
+		return AVAILABLE ? RegexEvent.start() : null;
+	}
+	
+	static void commitRegex(Object event, int length)
+	{
+		if (event != null)
+		{
+			RegexEvent.commit(event, length);
+		}
+	}
+	
+	static Object beginConfig()
+	{
+		return AVAILABLE ? ConfigEvent.start() : null;
+	}
+	
+	static void commitConfig(Object event, String file, boolean cached)
+	{
+		if (event != null)
+		{
+			ConfigEvent.commit(event, file, cached);
+		}
+	}
+	
+	static Object beginModule()
+	{
+		return AVAILABLE ? ModuleEvent.start() : null;
+	}
+	
+	static void commitModule(Object event, String name, String module)
+	{
+		if (event != null)
+		{
+			ModuleEvent.commit(event, name, module);
+		}
+	}
+	
+	@Name("org.jshint.LintFile")
+	@Label("Lint File")
+	@Category("JSHint")
+	@Description("Linting of a single file by JSHint.lint(), files from the cache of the CLI are not linted")
+	@StackTrace(false)
+	static class FileEvent extends Event
+	{
+		private static final FileEvent PROBE = new FileEvent();
+		
+		@Label("File")
+		String file;
+		
+		@Label("Size")
+		@DataAmount
+		long bytes;
+		
+		@Label("Tokens")
+		int tokens;
+		
+		@Label("Warnings")
+		int warnings;
+		
+		static Object start()
+		{
+			if (!PROBE.isEnabled()) return null;
+			
+			FileEvent event = new FileEvent();
+			event.begin();
+			return event;
+		}
+		
+		static void commit(Object started, String file, String code, int tokens, int warnings)
+		{
+			FileEvent event = (FileEvent) started;
+			event.end();
+			if (event.shouldCommit())
+			{
+				event.file = file;
+				event.bytes = code.getBytes(StandardCharsets.UTF_8).length;
+				event.tokens = tokens;
+				event.warnings = warnings;
+				event.commit();
+			}
+		}
+	}
+	
+	@Name("org.jshint.RegexValidation")
+	@Label("Regex Validation")
+	@Category("JSHint")
+	@Description("Scanning and validation of a regular expression literal")
+	@StackTrace(false)
+	@Threshold("1 ms")
+	static class RegexEvent extends Event
+	{
+		private static final RegexEvent PROBE = new RegexEvent();
+		
+		@Label("Length")
+		int length;
+		
+		static Object start()
+		{
+			if (!PROBE.isEnabled()) return null;
+			
+			RegexEvent event = new RegexEvent();
+			event.begin();
+			return event;
+		}
+		
+		static void commit(Object started, int length)
+		{
+			RegexEvent event = (RegexEvent) started;
+			event.end();
+			if (event.shouldCommit())
+			{
+				event.length = length;
+				event.commit();
+			}
+		}
+	}
+	
+	@Name("org.jshint.ConfigResolution")
+	@Label("Config Resolution")
+	@Category("JSHint")
+	@Description("Lookup and loading of the config of a file")
+	@StackTrace(false)
+	static class ConfigEvent extends Event
+	{
+		private static final ConfigEvent PROBE = new ConfigEvent();
+		
+		@Label("File")
+		String file;
+		
+		@Label("Cached")
+		@Description("Config of the directory was already resolved")
+		boolean cached;
+		
+		static Object start()
+		{
+			if (!PROBE.isEnabled()) return null;
+			
+			ConfigEvent event = new ConfigEvent();
+			event.begin();
+			return event;
+		}
+		
+		static void commit(Object started, String file, boolean cached)
+		{
+			ConfigEvent event = (ConfigEvent) started;
+			event.end();
+			if (event.shouldCommit())
+			{
+				event.file = file;
+				event.cached = cached;
+				event.commit();
+			}
+		}
+	}
+	
+	@Name("org.jshint.Module")
+	@Label("Module Execution")
+	@Category("JSHint")
+	@Description("Setup of a module or dispatching of a token to listeners and rules of modules")
+	@StackTrace(false)
+	@Threshold("1 ms")
+	static class ModuleEvent extends Event
+	{
+		private static final ModuleEvent PROBE = new ModuleEvent();
+		
+		@Label("Event")
+		@Description("Name of the dispatched event, e.g. Identifier, or null for module setup")
+		String name;
+		
+		@Label("Module")
+		@Description("Class of the module, which was set up, or null for dispatching")
+		String module;
+		
+		static Object start()
+		{
+			if (!PROBE.isEnabled()) return null;
+			
+			ModuleEvent event = new ModuleEvent();
+			event.begin();
+			return event;
+		}
+		
+		static void commit(Object started, String name, String module)
+		{
+			ModuleEvent event = (ModuleEvent) started;
+			event.end();
+			if (event.shouldCommit())
+			{
+				event.name = name;
+				event.module = module;
+				event.commit();
+			}
+		}
+	}
+}
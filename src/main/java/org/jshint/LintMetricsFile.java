@@ -0,0 +1,175 @@
+package org.jshint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metrics listener, which sums up counters of a run and writes them to a file when the run
+ * is finished. File is written as JSON if its name ends with <code>.json</code>, otherwise
+ * as text with a <code>name value</code> pair on every line. Rates are counted per second of
+ * the whole run, not only of linting, so they show real throughput of concurrent runs.
+ */
+public class LintMetricsFile implements LintMetricsListener
+{
+	private final Path path;
+	private final boolean json;
+	
+	private long started = 0;
+	private long finished = 0;
+	private int files = 0;
+	private long tokens = 0;
+	private long lines = 0;
+	private long nanos = 0;
+	private Map<String, Integer> warnings = new TreeMap<String, Integer>();
+	private int cacheHits = 0;
+	private int cacheMisses = 0;
+	private int maxQueueDepth = 0;
+	
+	public LintMetricsFile(Path path)
+	{
+		this.path = path;
+		this.json = path.getFileName().toString().toLowerCase().endsWith(".json");
+	}
+	
+	@Override
+	public synchronized void runStarted()
+	{
+		started = System.nanoTime();
+		finished = 0;
+		files = 0;
+		tokens = 0;
+		lines = 0;
+		nanos = 0;
+		warnings = new TreeMap<String, Integer>();
+		cacheHits = 0;
+		cacheMisses = 0;
+		maxQueueDepth = 0;
+	}
+	
+	@Override
+	public synchronized void fileLinted(int tokens, int lines, long nanos, Map<String, Integer> warnings)
+	{
+		this.files++;
+		this.tokens += tokens;
+		this.lines += lines;
+		this.nanos += nanos;
+		
+		for (Map.Entry<String, Integer> warning : warnings.entrySet())
+		{
+			this.warnings.merge(warning.getKey(), warning.getValue(), Integer::sum);
+		}
+	}
+	
+	@Override
+	public synchronized void cacheLookup(boolean hit)
+	{
+		if (hit)
+		{
+			cacheHits++;
+		}
+		else
+		{
+			cacheMisses++;
+		}
+	}
+	
+	@Override
+	public synchronized void queueDepth(int depth)
+	{
+		maxQueueDepth = Math.max(maxQueueDepth, depth);
+	}
+	
+	@Override
+	public synchronized void runFinished()
+	{
+		finished = System.nanoTime();
+		
+		try
+		{
+			Files.write(path, (json ? toJson() : toString()).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Returns counters and rates in a fixed order, rates are rounded to 3 decimal places.
+	 */
+	private Map<String, Number> values()
+	{
+		double seconds = Math.max(finished - started, 1) / 1e9;
+		
+		Map<String, Number> values = new LinkedHashMap<String, Number>();
+		values.put("files", files);
+		values.put("tokens", tokens);
+		values.put("lines", lines);
+		values.put("seconds", round(seconds));
+		values.put("lintSeconds", round(nanos / 1e9));
+		values.put("filesPerSecond", round(files / seconds));
+		values.put("tokensPerSecond", round(tokens / seconds));
+		values.put("linesPerSecond", round(lines / seconds));
+		values.put("cacheHits", cacheHits);
+		values.put("cacheMisses", cacheMisses);
+		values.put("maxQueueDepth", maxQueueDepth);
+		return values;
+	}
+	
+	private BigDecimal round(double value)
+	{
+		return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros();
+	}
+	
+	private String format(Number value)
+	{
+		return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+	}
+	
+	private synchronized String toJson()
+	{
+		StringBuilder json = new StringBuilder("{\n");
+		
+		// Names of values and warning codes don't need escaping
+		for (Map.Entry<String, Number> value : values().entrySet())
+		{
+			json.append("  \"").append(value.getKey()).append("\": ").append(format(value.getValue())).append(",\n");
+		}
+		
+		json.append("  \"warnings\": {");
+		String separator = "\n";
+		for (Map.Entry<String, Integer> warning : warnings.entrySet())
+		{
+			json.append(separator).append("    \"").append(warning.getKey()).append("\": ").append(warning.getValue());
+			separator = ",\n";
+		}
+		json.append(warnings.isEmpty() ? "}\n" : "\n  }\n");
+		
+		return json.append("}\n").toString();
+	}
+	
+	@Override
+	public synchronized String toString()
+	{
+		StringBuilder text = new StringBuilder();
+		
+		for (Map.Entry<String, Number> value : values().entrySet())
+		{
+			text.append(value.getKey()).append(" ").append(format(value.getValue())).append("\n");
+		}
+		for (Map.Entry<String, Integer> warning : warnings.entrySet())
+		{
+			text.append("warnings.").append(warning.getKey()).append(" ").append(warning.getValue()).append("\n");
+		}
+		
+		return text.toString();
+	}
+}
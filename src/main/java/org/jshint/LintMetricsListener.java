@@ -0,0 +1,50 @@
+package org.jshint;
+
+import java.util.Map;
+
+/**
+ * Receives counters of linting, so throughput of the linter and the noisiest warnings can be
+ * tracked. Listener can be added to {@link JSHint#addMetricsListener(LintMetricsListener)} to get
+ * metrics of every linted code, or to {@link Cli.RunOptions#setMetrics(LintMetricsListener)}
+ * to get metrics of all files of CLI runs, see {@link LintMetricsFile} for a listener, which
+ * writes them to a file.
+ *
+ * CLI lints files concurrently with <code>--threads</code>, so listeners should be thread safe.
+ */
+public interface LintMetricsListener
+{
+	/**
+	 * Called when CLI starts linting files.
+	 */
+	public default void runStarted() {}
+	
+	/**
+	 * Called after the code is linted, including code of eval-like strings, or after CLI
+	 * took its results from the cache, then tokens and nanos are 0.
+	 *
+	 * @param tokens   number of tokens, evaluated code isn't counted
+	 * @param lines    number of lines
+	 * @param nanos    time of linting
+	 * @param warnings number of warnings by their code, e.g. W033
+	 */
+	public default void fileLinted(int tokens, int lines, long nanos, Map<String, Integer> warnings) {}
+	
+	/**
+	 * Called when CLI looks for results of the file in the cache.
+	 *
+	 * @param hit true if results were found, so file isn't linted
+	 */
+	public default void cacheLookup(boolean hit) {}
+	
+	/**
+	 * Called when CLI adds a file to the queue of concurrently linted files.
+	 *
+	 * @param depth number of files, which are queued or linted, but not reported yet
+	 */
+	public default void queueDepth(int depth) {}
+	
+	/**
+	 * Called when CLI has reported all files.
+	 */
+	public default void runFinished() {}
+}
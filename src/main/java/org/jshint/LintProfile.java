@@ -0,0 +1,28 @@
+package org.jshint;
+
+/**
+ * Defines how much data the linter collects besides warnings.
+ */
+public enum LintProfile
+{
+	/**
+	 * Collects everything, which is returned by {@link JSHint#generateSummary()}.
+	 */
+	FULL,
+	
+	/**
+	 * Collects only warnings, summary has errors and options, but no members, functions,
+	 * implied globals or unused variables. Warnings are exactly the same as in {@link #FULL}.
+	 */
+	ERRORS_ONLY;
+	
+	/**
+	 * Checks if summary data, which doesn't affect warnings, should be collected.
+	 *
+	 * @return true if the profile collects full summary.
+	 */
+	public boolean collectsSummary()
+	{
+		return this == FULL;
+	}
+}
@@ -0,0 +1,179 @@
+package org.jshint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jshint.utils.EventContext;
+import org.jshint.utils.JSHintModule;
+import org.jshint.utils.JSHintRule;
+
+import com.github.jshaptic.js4j.UniversalContainer;
+
+/**
+ * Attributes time of linting to listeners and rules of modules and to the main checks of the
+ * linter, so a slow check can be found. Profiler is enabled by {@link JSHint#setProfiler(LintProfiler)},
+ * then every listener and rule registered by modules is wrapped, so its calls are measured.
+ *
+ * Time of a section includes time of sections called from it. Profiler isn't thread safe,
+ * every linter should have its own one, they can be summed up by {@link #add(LintProfiler)}.
+ */
+public class LintProfiler
+{
+	private final Map<String, Section> sections = new HashMap<String, Section>();
+	
+	/**
+	 * Adds a single call of the section.
+	 *
+	 * @param name  name of the section.
+	 * @param nanos time of the call.
+	 */
+	public void record(String name, long nanos)
+	{
+		Section section = sections.get(name);
+		if (section == null)
+		{
+			section = new Section();
+			sections.put(name, section);
+		}
+		section.calls++;
+		section.nanos += nanos;
+	}
+	
+	/**
+	 * Adds calls of another profiler.
+	 *
+	 * @param profiler profiler to add.
+	 */
+	public void add(LintProfiler profiler)
+	{
+		for (Map.Entry<String, Section> section : profiler.sections.entrySet())
+		{
+			Section sum = sections.computeIfAbsent(section.getKey(), name -> new Section());
+			sum.calls += section.getValue().calls;
+			sum.nanos += section.getValue().nanos;
+		}
+	}
+	
+	public Set<String> getSections()
+	{
+		return Collections.unmodifiableSet(sections.keySet());
+	}
+	
+	public long getCalls(String name)
+	{
+		return sections.containsKey(name) ? sections.get(name).calls : 0;
+	}
+	
+	public long getNanos(String name)
+	{
+		return sections.containsKey(name) ? sections.get(name).nanos : 0;
+	}
+	
+	/**
+	 * Returns a short name of the module, which is used in names of its sections,
+	 * e.g. <code>Style</code> or <code>MyModules$1</code> for an anonymous class.
+	 *
+	 * @param module a module.
+	 * @return name of the class without package.
+	 */
+	static String label(JSHintModule module)
+	{
+		return StringUtils.substringAfterLast("." + module.getClass().getName(), ".");
+	}
+	
+	/**
+	 * Wraps a listener into a section named after the module and the event,
+	 * e.g. <code>listener Style Identifier</code>.
+	 */
+	LexerEventListener wrap(String module, String event, LexerEventListener listener)
+	{
+		String name = "listener " + StringUtils.defaultString(module, "JSHint") + " " + event;
+		
+		return ev -> {
+			long started = System.nanoTime();
+			try
+			{
+				listener.accept(ev);
+			}
+			finally
+			{
+				record(name, System.nanoTime() - started);
+			}
+		};
+	}
+	
+	/**
+	 * Wraps a rule into a section named after the module, events and options of the rule,
+	 * e.g. <code>rule Style Identifier (camelcase)</code>.
+	 */
+	JSHintRule wrap(String module, JSHintRule rule)
+	{
+		String name = "rule " + StringUtils.defaultString(module, "JSHint") + " " + StringUtils.join(rule.getEvents(), " ")
+			+ (rule.getOptions().length > 0 ? " (" + StringUtils.join(rule.getOptions(), ", ") + ")" : "");
+		
+		return new JSHintRule()
+		{
+			@Override
+			public String[] getEvents()
+			{
+				return rule.getEvents();
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return rule.getOptions();
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return rule.isEnabled(options);
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext ev) throws JSHintException
+			{
+				long started = System.nanoTime();
+				try
+				{
+					rule.check(linter, event, ev);
+				}
+				finally
+				{
+					record(name, System.nanoTime() - started);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Returns a table of sections, the slowest go first.
+	 */
+	@Override
+	public String toString()
+	{
+		List<Map.Entry<String, Section>> sorted = new ArrayList<Map.Entry<String, Section>>(sections.entrySet());
+		sorted.sort((a, b) -> Long.compare(b.getValue().nanos, a.getValue().nanos));
+		
+		StringBuilder table = new StringBuilder(String.format("%10s %10s %10s  %s", "ms", "calls", "us/call", "section"));
+		for (Map.Entry<String, Section> section : sorted)
+		{
+			long calls = section.getValue().calls;
+			long nanos = section.getValue().nanos;
+			table.append(String.format("\n%,10.1f %,10d %,10.2f  %s", nanos / 1e6, calls, nanos / 1e3 / Math.max(calls, 1), section.getKey()));
+		}
+		return table.toString();
+	}
+	
+	private static class Section
+	{
+		private long calls = 0;
+		private long nanos = 0;
+	}
+}
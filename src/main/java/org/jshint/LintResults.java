@@ -0,0 +1,193 @@
+package org.jshint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jshint.reporters.JSHintReporter;
+import org.jshint.reporters.ReporterResult;
+import org.jshint.reporters.StreamingReporter;
+
+/**
+ * File with results of a single run, which can be merged with results of other runs
+ * into one report. It's used to lint a project on several nodes with <code>--shard</code>.
+ *
+ * Results are stored as a sequence of files with their summaries, in the same form as in
+ * {@link LintCache}, so files can be written and read with constant memory.
+ */
+public class LintResults
+{
+	// Has to be increased every time when serialized form of results is changed
+	private static final int FORMAT = 1;
+	
+	private LintResults() {}
+	
+	/**
+	 * Creates a reporter, which writes results to the file and passes them to another reporter.
+	 *
+	 * @param path     path to the results file, it's written when the run ends
+	 * @param reporter reporter, which receives the same results
+	 * @return reporter, which writes results.
+	 */
+	public static StreamingReporter writer(Path path, JSHintReporter reporter)
+	{
+		return new Writer(path, StreamingReporter.of(reporter));
+	}
+	
+	/**
+	 * Reports results from the files in the given order, as if they were produced by a single run.
+	 *
+	 * @param paths    paths to the results files
+	 * @param reporter reporter of the merged results
+	 * @param verbose  verbose option of the reporter
+	 * @return true if there are no warnings in any file.
+	 * @throws IOException if any file cannot be read or it was written by a different linter version.
+	 */
+	public static boolean merge(List<Path> paths, JSHintReporter reporter, String verbose) throws IOException
+	{
+		StreamingReporter streaming = StreamingReporter.of(reporter);
+		boolean passed = true;
+		
+		// All files are validated before anything is reported
+		for (Path path : paths)
+		{
+			open(path).close();
+		}
+		
+		streaming.start(verbose);
+		for (Path path : paths)
+		{
+			try (DataInputStream in = open(path))
+			{
+				while (in.readBoolean())
+				{
+					String file = in.readUTF();
+					DataSummary data = LintCache.readSummary(in);
+					data.setFile(file);
+					
+					streaming.fileStarted(file);
+					for (LinterWarning err : data.getErrors())
+					{
+						streaming.warning(new ReporterResult(file, err));
+						passed = false;
+					}
+					streaming.fileFinished(file, data);
+				}
+			}
+		}
+		streaming.end();
+		
+		return passed;
+	}
+	
+	private static DataInputStream open(Path path) throws IOException
+	{
+		DataInputStream in;
+		boolean compatible;
+		
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))));
+			compatible = in.readInt() == FORMAT && in.readUTF().equals(LintCache.VERSION);
+		}
+		catch (IOException e)
+		{
+			throw new IOException("Can't read results file " + path + ": " + e.getMessage(), e);
+		}
+		
+		if (!compatible)
+		{
+			in.close();
+			throw new IOException("Results file " + path + " was written by a different version");
+		}
+		return in;
+	}
+	
+	private static class Writer implements StreamingReporter
+	{
+		private final Path path;
+		private final StreamingReporter reporter;
+		private DataOutputStream out;
+		
+		private Writer(Path path, StreamingReporter reporter)
+		{
+			this.path = path;
+			this.reporter = reporter;
+		}
+		
+		@Override
+		public void start(String verbose)
+		{
+			try
+			{
+				out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path))));
+				out.writeInt(FORMAT);
+				out.writeUTF(LintCache.VERSION);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			
+			reporter.start(verbose);
+		}
+		
+		@Override
+		public void fileStarted(String file)
+		{
+			reporter.fileStarted(file);
+		}
+		
+		@Override
+		public void warning(ReporterResult result)
+		{
+			reporter.warning(result);
+		}
+		
+		@Override
+		public void fileFinished(String file, DataSummary data)
+		{
+			// Warnings are restored from the summary, so files without summary can't be merged
+			if (data != null)
+			{
+				try
+				{
+					out.writeBoolean(true);
+					out.writeUTF(file);
+					LintCache.writeSummary(out, data);
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			}
+			
+			reporter.fileFinished(file, data);
+		}
+		
+		@Override
+		public void end()
+		{
+			try
+			{
+				// End marker, so truncated files are detected on merge
+				out.writeBoolean(false);
+				out.close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			
+			reporter.end();
+		}
+	}
+}
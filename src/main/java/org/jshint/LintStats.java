@@ -0,0 +1,181 @@
+package org.jshint;
+
+/**
+ * Time spent in every phase of linting and size of the linted code, it's collected only
+ * if it's enabled by {@link JSHint#setStats(boolean)}, otherwise linter doesn't read the clock.
+ *
+ * Phases don't overlap, time of a nested phase isn't counted in the phase which contains it,
+ * e.g. regular expressions are validated while lexing, but their time is counted only
+ * as {@link Phase#REGEX}, so the sum of all phases is the whole time of linting.
+ */
+public class LintStats
+{
+	public static enum Phase
+	{
+		/**
+		 * Scanning of tokens, except regular expressions.
+		 */
+		LEXING("Lexing"),
+		
+		/**
+		 * Everything what isn't counted in other phases.
+		 */
+		PARSING("Parsing"),
+		
+		/**
+		 * Checks of bindings when scopes are closed.
+		 */
+		SCOPES("Scope resolution"),
+		
+		REGEX("Regex validation"),
+		
+		/**
+		 * Processing of in-line options, like <code>jshint</code> or <code>globals</code> comments.
+		 */
+		DIRECTIVES("In-line directives"),
+		
+		/**
+		 * Linting of code from eval-like strings, it's counted as a whole, including its own lexing and parsing.
+		 */
+		EVAL("Eval code"),
+		
+		SUMMARY("Summary");
+		
+		private final String label;
+		
+		private Phase(String label)
+		{
+			this.label = label;
+		}
+		
+		public String getLabel()
+		{
+			return label;
+		}
+	}
+	
+	private final long[] nanos = new long[Phase.values().length];
+	private int files = 0;
+	private long tokens = 0;
+	private long lines = 0;
+	
+	// Phase which is measured now, null if linter is idle
+	private Phase current = null;
+	private long since = 0;
+	
+	/**
+	 * Creates empty stats, which can be used to sum up stats of several files.
+	 */
+	public LintStats()
+	{
+		
+	}
+	
+	/**
+	 * Switches to the phase, unless evaluated code is linted, because it's counted as a whole.
+	 *
+	 * @param phase phase which starts now.
+	 * @return phase which should be restored by {@link #end(Phase)} when the started phase ends.
+	 */
+	Phase start(Phase phase)
+	{
+		if (current == Phase.EVAL)
+		{
+			return current;
+		}
+		return switchTo(phase);
+	}
+	
+	/**
+	 * Switches back to the phase, which was measured before the phase started.
+	 *
+	 * @param previous phase returned by {@link #start(Phase)}, null stops measuring.
+	 */
+	void end(Phase previous)
+	{
+		switchTo(previous);
+	}
+	
+	private Phase switchTo(Phase phase)
+	{
+		long now = System.nanoTime();
+		if (current != null)
+		{
+			nanos[current.ordinal()] += now - since;
+		}
+		
+		Phase previous = current;
+		current = phase;
+		since = now;
+		return previous;
+	}
+	
+	void count(int tokens, int lines)
+	{
+		this.files = 1;
+		this.tokens = tokens;
+		this.lines = lines;
+	}
+	
+	/**
+	 * Adds stats of another file or files.
+	 *
+	 * @param stats stats to add.
+	 */
+	public void add(LintStats stats)
+	{
+		for (int i = 0; i < nanos.length; i++)
+		{
+			nanos[i] += stats.nanos[i];
+		}
+		files += stats.files;
+		tokens += stats.tokens;
+		lines += stats.lines;
+	}
+	
+	public long getNanos(Phase phase)
+	{
+		return nanos[phase.ordinal()];
+	}
+	
+	public long getTotalNanos()
+	{
+		long total = 0;
+		for (long n : nanos)
+		{
+			total += n;
+		}
+		return total;
+	}
+	
+	public int getFiles()
+	{
+		return files;
+	}
+	
+	public long getTokens()
+	{
+		return tokens;
+	}
+	
+	public long getLines()
+	{
+		return lines;
+	}
+	
+	@Override
+	public String toString()
+	{
+		long total = getTotalNanos();
+		
+		StringBuilder stats = new StringBuilder();
+		stats.append(String.format("Linted %,d file%s, %,d lines, %,d tokens in %,d ms",
+			files, files == 1 ? "" : "s", lines, tokens, total / 1000000));
+		for (Phase phase : Phase.values())
+		{
+			stats.append(String.format("\n  %-20s %,8d ms %5.1f%%",
+				phase.getLabel(), getNanos(phase) / 1000000, total > 0 ? getNanos(phase) * 100.0 / total : 0.0));
+		}
+		return stats.toString();
+	}
+}
@@ -117,6 +117,11 @@ public class LinterWarning
 		substitutions = new SubstitutionMap(values);
 	}
 	
+	String[] getSubstitutions()
+	{
+		return substitutions != null ? substitutions.toArray() : null;
+	}
+	
 	@Override
     public int hashCode()
 	{
@@ -90,6 +90,7 @@ public class Messages
 		.put("E064", "Super call may only be used within class method bodies.")
 		.put("E065", "Functions defined outside of strict mode with non-simple parameter lists may not enable strict mode.")
 		.put("E066", "Asynchronous iteration is only available with for-of loops.")
+		.put("E067", "Linting budget '{a}' of {b} is exceeded.")
 		.build();
 	
 	//WARNING MESSAGES
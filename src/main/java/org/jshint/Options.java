@@ -835,6 +835,33 @@ public class Options
 		 */
 		.put("maxerr", false)
 		
+		/**
+		 * This option sets the maximum time in milliseconds JSHint can spend on
+		 * a single file. When it's exceeded, linting stops with an error.
+		 *
+		 * This option cannot be specified in-line, so the linted code can't
+		 * change it.
+		 */
+		.put("maxtime", false)
+		
+		/**
+		 * This option sets the maximum number of tokens JSHint will scan in
+		 * a single file. When it's exceeded, linting stops with an error.
+		 *
+		 * This option cannot be specified in-line, so the linted code can't
+		 * change it.
+		 */
+		.put("maxtokens", false)
+		
+		/**
+		 * This option sets how deeply expressions can be nested, e.g. in
+		 * generated code. When it's exceeded, linting stops with an error.
+		 *
+		 * This option cannot be specified in-line, so the linted code can't
+		 * change it.
+		 */
+		.put("maxnesting", false)
+		
 		/**
 		 * This option allows you to control which variables JSHint considers to be
 		 * implicitly defined in the environment. Configure it with an array of
@@ -270,8 +270,8 @@ public class Reg
 		if (input == null || input.length() == 0) return input;
 		
 		int i = 0, j = input.length() - 1;
-		while (input.charAt(i) == '_') i++;
-		while (input.charAt(j) == '_') j--;
+		while (i <= j && input.charAt(i) == '_') i++;
+		while (j >= i && input.charAt(j) == '_') j--;
 		
 		return input.substring(i, j + 1);
 	}
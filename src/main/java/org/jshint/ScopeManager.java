@@ -33,6 +33,7 @@ public class ScopeManager
 
 	private Scope							current;
 	private List<Scope>						scopeStack;
+	private Scope							globalScope;
 
 	private Scope							currentFunctBody;
 
@@ -75,6 +76,7 @@ public class ScopeManager
 
 		this.newScope( "global" );
 		this.current.setPredefined( predefined );
+		this.globalScope = this.current;
 
 		this.currentFunctBody = this.current; // this is the block after the params = function
 
@@ -166,6 +168,7 @@ public class ScopeManager
 
 	private void warnUnused( String name, Token tkn, String type, UniversalContainer unused_opt )
 	{
+		long started = this.state.startSection();
 		int line = tkn.getLine();
 		int chr = tkn.getFrom();
 		String raw_name = StringUtils.defaultIfEmpty( tkn.getRawText(), name );
@@ -189,7 +192,7 @@ public class ScopeManager
 		}
 
 		// inconsistent - see gh-1894
-		if( unused_opt.test() || type.equals( "var" ) )
+		if( ( unused_opt.test() || type.equals( "var" ) ) && this.state.getProfile().collectsSummary() )
 		{
 			Token t = new Token();
 			t.setName( name );
@@ -197,6 +200,7 @@ public class ScopeManager
 			t.setCharacter( chr );
 			unuseds.add( t );
 		}
+		this.state.endSection( "ScopeManager.warnUnused", started );
 	}
 
 
@@ -433,6 +437,21 @@ public class ScopeManager
 	 * and set the next scope on the stack as the active scope.
 	 */
 	public void unstack()
+	{
+		LintStats.Phase previous = this.state.startPhase( LintStats.Phase.SCOPES );
+		try
+		{
+			unstackCurrent();
+		}
+		finally
+		{
+			this.state.endPhase( previous );
+		}
+	}
+
+
+
+	private void unstackCurrent()
 	{
 		Scope subScope = scopeStack.size() > 1 ? scopeStack.get( scopeStack.size() - 2 ) : null;
 		boolean isUnstackingFunctionBody = current == currentFunctBody;
@@ -565,6 +584,10 @@ public class ScopeManager
 							{
 								warning( "W117", undefinedToken, usedLabelName );
 							}
+							if( ! this.state.getProfile().collectsSummary() )
+							{
+								continue;
+							}
 							if( impliedGlobals.containsKey( usedLabelName ) )
 							{
 								impliedGlobals.get( usedLabelName ).addLine( undefinedToken.getLine() );
@@ -795,6 +818,25 @@ public class ScopeManager
 
 
 
+	/**
+	 * Get a map of bindings declared in the global scope, where value is
+	 * false for read-only bindings, i.e. constants and imports.
+	 * 
+	 * @return map of declared globals.
+	 */
+	public Map<String, Boolean> getDeclaredGlobals()
+	{
+		Map<String, Boolean> globals = new LinkedHashMap<String, Boolean>();
+		for( Map.Entry<String, Label> entry: globalScope.getLabels().entrySet() )
+		{
+			String type = entry.getValue().getType();
+			globals.put( entry.getKey(), ! type.equals( "const" ) && ! type.equals( "import" ) );
+		}
+		return globals;
+	}
+
+
+
 	/**
 	 * Get an array of implied globals
 	 * 
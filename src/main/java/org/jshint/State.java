@@ -3,6 +3,7 @@ package org.jshint;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,6 +32,20 @@ public final class State
 	private NameStack				nameStack			= null;
 	private boolean					inClassBody			= false;
 
+	private LintProfile				profile				= LintProfile.FULL; // isn't reset, it's set once per linter
+	private BooleanSupplier			cancellation		= null; // isn't reset too
+	private boolean					collectsStats		= false; // isn't reset too
+	private LintStats				stats				= null; // stats of the last linted file, they are replaced on every run
+	private LintProfiler			profiler			= null; // isn't reset, it's set once per linter
+
+	// Budgets of a single file, they protect the linter from pathological code
+	private long					deadline			= 0; // System.nanoTime() when the time is over
+	private int						maxTime				= 0;
+	private int						maxTokens			= 0;
+	private int						maxNesting			= 0;
+	private int						tokens				= 0;
+	private int						nesting				= 0;
+
 	private boolean					condition			= false;
 	private List<Token>				forinifchecks		= null;
 
@@ -484,6 +499,248 @@ public final class State
 
 
 
+	LintProfile getProfile()
+	{
+		return profile;
+	}
+
+
+
+	void setProfile( LintProfile profile )
+	{
+		this.profile = profile;
+	}
+
+
+
+	void setCancellation( BooleanSupplier cancellation )
+	{
+		this.cancellation = cancellation;
+	}
+
+
+
+	/**
+	 * Stops linting if it was cancelled, it's checked for every token, so linter
+	 * doesn't have to finish the whole file after the result isn't needed anymore.
+	 */
+	void checkCancelled()
+	{
+		if( cancellation != null && cancellation.getAsBoolean() )
+		{
+			throw new LintCancelledException();
+		}
+	}
+
+
+
+	void setStats( boolean collectsStats )
+	{
+		this.collectsStats = collectsStats;
+		this.stats = null;
+	}
+
+
+
+	LintStats getStats()
+	{
+		return stats;
+	}
+
+
+
+	/**
+	 * Starts stats of the file if they are collected, linting starts with parsing.
+	 */
+	void startStats()
+	{
+		stats = collectsStats ? new LintStats() : null;
+		startPhase( LintStats.Phase.PARSING );
+	}
+
+
+
+	/**
+	 * Counts size of the file, it's called before evaluated code is linted, because tokens
+	 * and lines are counted again for every piece of evaluated code.
+	 */
+	void countStats()
+	{
+		if( stats != null )
+		{
+			stats.count( tokens, lines != null ? lines.length : 0 );
+		}
+	}
+
+
+
+	/**
+	 * Starts measuring of the phase, it doesn't read the clock if stats aren't collected.
+	 * 
+	 * @param phase phase which starts now.
+	 * @return phase which should be passed to {@link #endPhase(LintStats.Phase)}.
+	 */
+	LintStats.Phase startPhase( LintStats.Phase phase )
+	{
+		return stats != null ? stats.start( phase ) : null;
+	}
+
+
+
+	void endPhase( LintStats.Phase previous )
+	{
+		if( stats != null )
+		{
+			stats.end( previous );
+		}
+	}
+
+
+
+	LintProfiler getProfiler()
+	{
+		return profiler;
+	}
+
+
+
+	void setProfiler( LintProfiler profiler )
+	{
+		this.profiler = profiler;
+	}
+
+
+
+	/**
+	 * Starts a profiled section, it doesn't read the clock if there is no profiler.
+	 * 
+	 * @return start of the section, which should be passed to {@link #endSection(String, long)}.
+	 */
+	long startSection()
+	{
+		return profiler != null ? System.nanoTime() : 0;
+	}
+
+
+
+	/**
+	 * Ends a profiled section, sections, which are left by exception, aren't counted.
+	 * 
+	 * @param name    name of the section.
+	 * @param started value returned by {@link #startSection()}.
+	 */
+	void endSection( String name, long started )
+	{
+		if( profiler != null )
+		{
+			profiler.record( name, System.nanoTime() - started );
+		}
+	}
+
+
+
+	/**
+	 * Starts budgets of the file, they are read only once, so they can't be changed by
+	 * in-line options of the linted code.
+	 */
+	void startBudgets()
+	{
+		maxTime = getOption().isNumber( "maxtime" ) ? getOption().asInt( "maxtime" ) : 0;
+		maxTokens = getOption().isNumber( "maxtokens" ) ? getOption().asInt( "maxtokens" ) : 0;
+		maxNesting = getOption().isNumber( "maxnesting" ) ? getOption().asInt( "maxnesting" ) : 0;
+		deadline = maxTime > 0 ? System.nanoTime() + maxTime * 1000000L : 0;
+		tokens = 0;
+		nesting = 0;
+	}
+
+
+
+	/**
+	 * Checks time budget, it's called for every parsed token.
+	 * 
+	 * @return substitutions of E067 if the budget is exceeded, null otherwise.
+	 */
+	String[] checkTime()
+	{
+		if( maxTime > 0 && System.nanoTime() - deadline > 0 )
+		{
+			return exceedBudget( "maxtime", maxTime );
+		}
+		return null;
+	}
+
+
+
+	int getTokens()
+	{
+		return tokens;
+	}
+
+
+
+	/**
+	 * Counts a token scanned by the lexer.
+	 */
+	void countToken()
+	{
+		tokens++;
+	}
+
+
+
+	/**
+	 * Checks token budget, it's called for every token returned by the lexer.
+	 * 
+	 * @return substitutions of E067 if the budget is exceeded, null otherwise.
+	 */
+	String[] checkTokens()
+	{
+		if( maxTokens > 0 && tokens > maxTokens )
+		{
+			return exceedBudget( "maxtokens", maxTokens );
+		}
+		return null;
+	}
+
+
+
+	/**
+	 * Counts nesting of an expression and checks nesting budget.
+	 * 
+	 * @return substitutions of E067 if the budget is exceeded, null otherwise.
+	 */
+	String[] enterExpression()
+	{
+		nesting++;
+
+		if( maxNesting > 0 && nesting > maxNesting )
+		{
+			return exceedBudget( "maxnesting", maxNesting );
+		}
+		return null;
+	}
+
+
+
+	void exitExpression()
+	{
+		nesting--;
+	}
+
+
+
+	private String[] exceedBudget( String name, int limit )
+	{
+		// Budgets are checked only once per file, so next checks can't fail while error is reported
+		maxTime = 0;
+		maxTokens = 0;
+		maxNesting = 0;
+
+		return new String[]{ name, String.valueOf( limit ) };
+	}
+
+
+
 	public void reset()
 	{
 		prev = null;
@@ -502,5 +759,11 @@ public final class State
 		forinifcheckneeded = false;
 		nameStack = new NameStack();
 		inClassBody = false;
+		deadline = 0;
+		maxTime = 0;
+		maxTokens = 0;
+		maxNesting = 0;
+		tokens = 0;
+		nesting = 0;
 	}
 }
\ No newline at end of file
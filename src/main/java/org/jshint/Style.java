@@ -2,26 +2,42 @@ package org.jshint;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.utils.JSHintModule;
+import org.jshint.utils.JSHintRule;
 import org.jshint.utils.EventContext;
 import com.github.jshaptic.js4j.UniversalContainer;
 
 public class Style implements JSHintModule
 {
+	private static final String[] NO_OPTIONS = new String[0];
+	
 	@Override
 	public void execute(final JSHint linter)
 	{
 		// Check for properties named __proto__. This special property was
 		// deprecated and then re-introduced for ES6.
-		linter.on("Identifier", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
+			{
+				return new String[]{"Identifier"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return new String[]{"proto"};
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return !options[0].test();
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
 			{
-				if (linter.getOption("proto").test())
-				{
-					return;
-				}
-				
 				if (data.getName().equals("__proto__"))
 				{
 					linter.warn("W103", data.getLine(), data.getCharacter(), new String[]{data.getName(), "6"});
@@ -33,16 +49,29 @@ public class Style implements JSHintModule
 		// available only in browsers with JavaScript 1.7 implementation, but
 		// it is deprecated for ES6
 		
-		linter.on("Identifier", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
+			{
+				return new String[]{"Identifier"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return new String[]{"iterator"};
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return !options[0].test();
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
 			{
-				if (linter.getOption("iterator").test())
-				{
-					return;
-				}
-				
 				if (data.getName().equals("__iterator__"))
 				{
 					linter.warn("W103", data.getLine(), data.getCharacter(), new String[]{data.getName()});
@@ -52,16 +81,29 @@ public class Style implements JSHintModule
 		
 		// Check that all identifiers are using camelCase notation.
 		// Exceptions: names like MY_VAR and _myVar.
-		linter.on("Identifier", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
+			{
+				return new String[]{"Identifier"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return new String[]{"camelcase"};
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return options[0].test();
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
 			{
-				if (!linter.getOption("camelcase").test())
-				{
-					return;
-				}
-				
 				// PORT INFO: replace and match regexps were moved to Reg class
 				if (Reg.trimUnderscores(data.getName()).indexOf("_") > -1 && !Reg.isUppercaseIdentifier(data.getName()))
 				{
@@ -71,19 +113,33 @@ public class Style implements JSHintModule
 		});
 		
 		// Enforce consistency in style of quoting.
-		linter.on("String", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
 			{
+				return new String[]{"String"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return new String[]{"quotmark"};
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return options[0].test();
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
+			{
+				// PORT INFO: quotmark value is still read here, because it's not only a switch but also a mode
 				UniversalContainer quotmark = linter.getOption("quotmark");
 				String code = "";
 				
-				if (!quotmark.test())
-				{
-					return;
-				}
-				
 				// If quotmark is enabled, return if this is a template literal.
 				if (quotmark.equals("single") && !data.getQuote().equals("'"))
 				{
@@ -118,10 +174,28 @@ public class Style implements JSHintModule
 			}
 		});
 		
-		linter.on("Number", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
+			{
+				return new String[]{"Number"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return NO_OPTIONS;
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return true;
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
 			{
 				if (data.getValue().charAt(0) == '.')
 				{
@@ -145,16 +219,29 @@ public class Style implements JSHintModule
 		
 		// Warn about script URLs.
 		
-		linter.on("String", new LexerEventListener()
+		linter.addRule(new JSHintRule()
 		{
 			@Override
-			public void accept(EventContext data) throws JSHintException
+			public String[] getEvents()
+			{
+				return new String[]{"String"};
+			}
+			
+			@Override
+			public String[] getOptions()
+			{
+				return new String[]{"scripturl"};
+			}
+			
+			@Override
+			public boolean isEnabled(UniversalContainer[] options)
+			{
+				return !options[0].test();
+			}
+			
+			@Override
+			public void check(JSHint linter, String event, EventContext data) throws JSHintException
 			{
-				if (linter.getOption("scripturl").test())
-				{
-					return;
-				}
-				
 				if (Reg.isJavascriptUrl(data.getValue())) // JSHINT_BUG: javascriptURL pattern can be used here
 				{
 					linter.warn("W107", data.getLine(), data.getCharacter(), new String[]{});
@@ -162,4 +249,4 @@ public class Style implements JSHintModule
 			}
 		});
 	}
-}
\ No newline at end of file
+}
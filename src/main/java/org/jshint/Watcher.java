@@ -0,0 +1,562 @@
+package org.jshint;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jshint.reporters.DefaultReporter;
+import org.jshint.reporters.JSHintReporter;
+import org.jshint.reporters.ReporterResult;
+import org.jshint.reporters.StreamingReporter;
+import org.jshint.utils.IOUtils;
+
+import com.github.jshaptic.js4j.UniversalContainer;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Watch mode of the {@link Cli}.
+ *
+ * After the initial run it keeps results of every file in memory and lints again only
+ * files which contents were changed, or which config files were changed. Reporter receives
+ * results of these files only, so its output is incremental.
+ */
+public class Watcher
+{
+	// Events which come shortly one after another, e.g. when editor saves several files, are handled together
+	private static final long DEBOUNCE = 100;
+	
+	private final Cli cli;
+	private final Cli.RunOptions opts;
+	private final IOUtils.PathUtils path;
+	private final IOUtils.ShellUtils shell;
+	private final JSHintReporter reporter;
+	
+	private final Map<String, WatchedFile> files = new LinkedHashMap<String, WatchedFile>(); // by absolute path
+	private final Map<String, String> explicitFiles = new HashMap<String, String>(); // files from arguments by absolute path
+	private final Map<WatchKey, WatchedDirectory> dirs = new HashMap<WatchKey, WatchedDirectory>();
+	private final Set<String> configs = new HashSet<String>(); // absolute paths to loaded config files
+	
+	private UniversalContainer config; // config passed by --config, it's loaded again before every run
+	private Cli.FileFilter filter;
+	private volatile WatchService watcher;
+	private volatile boolean stopped = false;
+	
+	/**
+	 * @param cli  CLI, which lints files
+	 * @param opts options of the run, only files and directories from arguments are watched
+	 */
+	public Watcher(Cli cli, Cli.RunOptions opts)
+	{
+		this.cli = cli;
+		this.opts = opts;
+		this.path = cli.getPathUtils();
+		this.shell = cli.getShellUtils();
+		this.reporter = opts.getReporter() != null ? opts.getReporter() : new DefaultReporter();
+		this.config = opts.getConfig();
+	}
+	
+	/**
+	 * Lints all files and then blocks, linting changed files, until watcher is stopped.
+	 *
+	 * @throws IOException if files cannot be watched.
+	 * @throws JSHintException if there is issue during code linting.
+	 */
+	public void watch() throws IOException, JSHintException
+	{
+		try (WatchService watcher = FileSystems.getDefault().newWatchService())
+		{
+			this.watcher = watcher;
+			if (stopped) return;
+			
+			lint(scan(), Collections.<String>emptySet(), true);
+			
+			while (true)
+			{
+				WatchKey key = watcher.take();
+				
+				Set<String> changed = new LinkedHashSet<String>();
+				Set<String> forced = new HashSet<String>();
+				boolean rescan = false;
+				
+				do
+				{
+					rescan |= handle(key, changed, forced);
+					key = watcher.poll(DEBOUNCE, TimeUnit.MILLISECONDS);
+				}
+				while (key != null);
+				
+				if (rescan)
+				{
+					changed.addAll(scan());
+				}
+				changed.addAll(forced);
+				
+				lint(changed, forced, false);
+			}
+		}
+		catch (ClosedWatchServiceException e)
+		{
+			// Watcher was stopped
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			this.watcher = null;
+		}
+	}
+	
+	/**
+	 * Stops the watcher, files which are currently linted are reported first.
+	 */
+	public void stop()
+	{
+		stopped = true;
+		
+		try
+		{
+			WatchService watcher = this.watcher;
+			if (watcher != null) watcher.close();
+		}
+		catch (IOException e)
+		{
+			// Nothing to do, watcher is closed anyway
+		}
+	}
+	
+	/**
+	 * Finds all files, which have to be linted, and watches their directories.
+	 *
+	 * @return absolute paths of files, which weren't known before.
+	 */
+	private List<String> scan() throws IOException
+	{
+		filter = cli.createFileFilter(opts);
+		
+		Map<String, String> found = new LinkedHashMap<String, String>();
+		
+		for (String arg : opts.getArgs())
+		{
+			if (!filter.accept(arg))
+			{
+				continue;
+			}
+			
+			if (shell.isDirectory(arg))
+			{
+				register(arg, true);
+				shell.walk(arg, dir -> {
+					if (filter.acceptDirectory(dir))
+					{
+						register(dir, true);
+						return true;
+					}
+					return false;
+				}, file -> {
+					if (filter.acceptFile(file))
+					{
+						found.put(path.resolve(file), file);
+					}
+				});
+			}
+			else
+			{
+				// File can be created later, so only its directory has to exist
+				explicitFiles.put(path.resolve(arg), arg);
+				register(path.dirname(arg), false);
+				
+				if (shell.exists(arg))
+				{
+					found.put(path.resolve(arg), arg);
+				}
+				else
+				{
+					cli.getCliUtils().error("Can't open " + arg);
+				}
+			}
+		}
+		
+		files.keySet().retainAll(found.keySet());
+		
+		List<String> added = new ArrayList<String>();
+		for (Map.Entry<String, String> entry : found.entrySet())
+		{
+			if (!files.containsKey(entry.getKey()))
+			{
+				files.put(entry.getKey(), new WatchedFile(entry.getValue()));
+				added.add(entry.getKey());
+			}
+		}
+		return added;
+	}
+	
+	/**
+	 * Starts watching a directory, if it isn't watched yet.
+	 *
+	 * @param dir    path to the directory
+	 * @param walked true if new files in this directory have to be linted
+	 */
+	private void register(String dir, boolean walked)
+	{
+		try
+		{
+			WatchKey key = Paths.get(path.resolve(dir)).register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+			
+			WatchedDirectory watched = dirs.get(key);
+			if (watched == null)
+			{
+				dirs.put(key, new WatchedDirectory(dir, walked));
+			}
+			else
+			{
+				watched.walked |= walked;
+			}
+		}
+		catch (IOException e)
+		{
+			// Directory was removed, its parent will report it
+		}
+	}
+	
+	/**
+	 * Collects files affected by the events of a single directory.
+	 *
+	 * @param key     key of the watched directory
+	 * @param changed absolute paths of files, which have to be linted again
+	 * @param forced  absolute paths of files, which have to be linted even if their contents weren't changed
+	 * @return true if list of files has to be gathered again.
+	 */
+	private boolean handle(WatchKey key, Set<String> changed, Set<String> forced)
+	{
+		WatchedDirectory dir = dirs.get(key);
+		boolean rescan = false;
+		
+		for (WatchEvent<?> event : key.pollEvents())
+		{
+			if (event.kind() == OVERFLOW || dir == null)
+			{
+				rescan = true;
+				continue;
+			}
+			
+			String name = event.context().toString();
+			String file = path.join(dir.path, name);
+			String fp = path.resolve(file);
+			
+			if (name.equals(".jshintignore"))
+			{
+				rescan = true;
+			}
+			else if (name.equals(".jshintrc") || name.equals("package.json"))
+			{
+				// Config applies to all files in its directory and below
+				String prefix = path.dirname(fp) + File.separator;
+				for (String linted : files.keySet())
+				{
+					if (linted.startsWith(prefix)) forced.add(linted);
+				}
+			}
+			else if (configs.contains(fp))
+			{
+				// Config passed by --config or extended by another config, it isn't known
+				// which files use it, --config itself is loaded again by the next run
+				forced.addAll(files.keySet());
+			}
+			
+			if (files.containsKey(fp))
+			{
+				changed.add(fp);
+			}
+			else if (event.kind() == ENTRY_CREATE && explicitFiles.containsKey(fp))
+			{
+				files.put(fp, new WatchedFile(explicitFiles.get(fp)));
+				changed.add(fp);
+			}
+			else if (event.kind() == ENTRY_CREATE && dir.walked)
+			{
+				if (shell.isDirectory(file))
+				{
+					// Files could be created before the directory is watched
+					rescan |= filter.acceptDirectory(file);
+				}
+				else if (filter.acceptFile(file))
+				{
+					files.put(fp, new WatchedFile(file));
+					changed.add(fp);
+				}
+			}
+		}
+		
+		if (!key.reset())
+		{
+			dirs.remove(key);
+		}
+		
+		return rescan;
+	}
+	
+	/**
+	 * Starts watching directories of configs, which were loaded since the last call, so their
+	 * changes are noticed even if they aren't named .jshintrc.
+	 */
+	private void watchConfigs()
+	{
+		for (String config : cli.getLoadedConfigs())
+		{
+			if (configs.add(config))
+			{
+				register(path.dirname(config), false);
+			}
+		}
+	}
+	
+	/**
+	 * Lints given files and reports their results.
+	 *
+	 * @param changed absolute paths of files, which could be changed
+	 * @param forced  absolute paths of files, which have to be linted even if their contents weren't changed
+	 * @param initial true if it's the initial run, all its results are reported
+	 */
+	private void lint(Iterable<String> changed, Set<String> forced, boolean initial) throws IOException, JSHintException
+	{
+		List<String> args = new ArrayList<String>();
+		Map<String, WatchedFile> linted = new LinkedHashMap<String, WatchedFile>(); // by display path
+		int removed = 0;
+		
+		for (String fp : changed)
+		{
+			WatchedFile file = files.get(fp);
+			if (file == null) continue;
+			
+			String code;
+			try
+			{
+				code = shell.cat(file.path);
+			}
+			catch (IOException e)
+			{
+				files.remove(fp);
+				removed++;
+				continue;
+			}
+			
+			// Editors often touch files without changing them
+			HashCode hash = Hashing.murmur3_128().hashString(code, StandardCharsets.UTF_8);
+			if (hash.equals(file.hash) && !forced.contains(fp))
+			{
+				continue;
+			}
+			file.hash = hash;
+			
+			args.add(file.path);
+			linted.put(file.path, file);
+		}
+		
+		if (args.isEmpty() && removed == 0)
+		{
+			return;
+		}
+		
+		if (opts.getConfigFile() != null)
+		{
+			try
+			{
+				// Configs loaded by the previous run could be changed since then
+				cli.clearMemos();
+				config = cli.loadConfig(opts.getConfigFile());
+			}
+			catch (Cli.ExitException e)
+			{
+				// Config is being edited, error is already reported, previous config is used till it's fixed
+			}
+			watchConfigs();
+		}
+		
+		Collector collector = new Collector();
+		Cli.RunOptions runOptions = new Cli.RunOptions(opts);
+		runOptions.setConfig(config);
+		runOptions.setReporter(collector);
+		
+		// Stats and profile are reported for every run separately
+		if (opts.getStats() != null)
+		{
+			runOptions.setStats(new LintStats());
+		}
+		if (opts.getProfiler() != null)
+		{
+			runOptions.setProfiler(new LintProfiler());
+		}
+		
+		List<String> pending = new ArrayList<String>(args);
+		while (!pending.isEmpty())
+		{
+			runOptions.setArgs(pending.toArray(new String[0]));
+			
+			try
+			{
+				cli.run(runOptions);
+				break;
+			}
+			catch (Cli.ExitException e)
+			{
+				// File was removed while it was linted, error is already reported,
+				// files which weren't reported before it are linted again without it
+				pending.removeAll(collector.reported);
+				
+				boolean dropped = false;
+				for (Iterator<String> it = pending.iterator(); it.hasNext();)
+				{
+					String file = it.next();
+					if (!shell.exists(file))
+					{
+						it.remove();
+						linted.remove(file);
+						files.remove(path.resolve(file));
+						removed++;
+						dropped = true;
+					}
+				}
+				if (!dropped) break;
+			}
+		}
+		
+		for (WatchedFile file : linted.values())
+		{
+			if (collector.reported.contains(file.path))
+			{
+				file.results.clear();
+				file.data.clear();
+			}
+			else
+			{
+				// Linting was stopped before the file was reported, so it's linted again next time
+				file.hash = null;
+			}
+		}
+		for (ReporterResult result : collector.results)
+		{
+			WatchedFile file = linted.get(result.getFile());
+			if (file != null) file.results.add(result);
+		}
+		for (DataSummary summary : collector.data)
+		{
+			WatchedFile file = linted.get(summary.getFile());
+			if (file != null) file.data.add(summary);
+		}
+		
+		watchConfigs();
+		
+		reporter.generate(collector.results, collector.data, opts.getVerbose());
+		
+		if (runOptions.getStats() != null)
+		{
+			cli.getCliUtils().error(runOptions.getStats().toString());
+		}
+		if (runOptions.getProfiler() != null)
+		{
+			cli.getCliUtils().error(runOptions.getProfiler().toString());
+		}
+		
+		if (!initial)
+		{
+			int warnings = 0;
+			for (WatchedFile file : files.values())
+			{
+				warnings += file.results.size();
+			}
+			cli.getCliUtils().error("Linted " + collector.reported.size() + " changed file(s), " + removed + " removed, " +
+				warnings + " warning(s) in " + files.size() + " watched file(s)");
+		}
+	}
+	
+	/**
+	 * Collects results of a run, including files which were reported before the run was stopped.
+	 */
+	private static class Collector implements StreamingReporter
+	{
+		private final Set<String> reported = new HashSet<String>();
+		private final List<ReporterResult> results = new ArrayList<ReporterResult>();
+		private final List<DataSummary> data = new ArrayList<DataSummary>();
+		
+		@Override
+		public void start(String verbose)
+		{
+			
+		}
+		
+		@Override
+		public void fileStarted(String file)
+		{
+			
+		}
+		
+		@Override
+		public void warning(ReporterResult result)
+		{
+			results.add(result);
+		}
+		
+		@Override
+		public void fileFinished(String file, DataSummary data)
+		{
+			reported.add(file);
+			if (data != null) this.data.add(data);
+		}
+		
+		@Override
+		public void end()
+		{
+			
+		}
+	}
+	
+	private static class WatchedFile
+	{
+		private final String path; // as it's displayed by reporters
+		private HashCode hash = null;
+		private final List<ReporterResult> results = new ArrayList<ReporterResult>();
+		private final List<DataSummary> data = new ArrayList<DataSummary>();
+		
+		private WatchedFile(String path)
+		{
+			this.path = path;
+		}
+	}
+	
+	private static class WatchedDirectory
+	{
+		private final String path; // as it's displayed by reporters
+		private boolean walked; // new files are linted only in directories gathered from arguments
+		
+		private WatchedDirectory(String path, boolean walked)
+		{
+			this.path = path;
+			this.walked = walked;
+		}
+	}
+}
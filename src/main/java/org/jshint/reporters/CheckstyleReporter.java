@@ -1,128 +1,89 @@
 package org.jshint.reporters;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.DataSummary;
 
 //Author: Boy Baukema
 //http://github.com/relaxnow
-public class CheckstyleReporter implements JSHintReporter
+public class CheckstyleReporter implements StreamingReporter
 {
-	private static class Issue
+	private String verbose;
+	private XmlWriter out;
+	private String file;
+	private boolean fileOpened; // file element is written before its first error
+	
+	@Override
+	public void start(String verbose)
 	{
-		String severity = "";
-		int line = 0;
-		int column = 0;
-		String message = "";
-		String source = "";
+		this.verbose = verbose;
+		this.out = new XmlWriter(System.out);
 		
-		public Issue(String severity, int line, int column, String message, String source)
-		{
-			this.severity = severity;
-			this.line = line;
-			this.column = column;
-			this.message = message;
-			this.source = source;
-		}
+		out.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		out.write("<checkstyle version=\"4.3\">\n");
 	}
 	
-	private static final Map<String, String> pairs = new HashMap<String, String>();
-	static
+	@Override
+	public void fileStarted(String file)
 	{
-		pairs.put("&", "&amp;");
-		pairs.put("\"", "&quot;");
-		pairs.put("'", "&apos;");
-		pairs.put("<", "&lt;");
-		pairs.put(">", "&gt;");
+		this.file = file;
+		this.fileOpened = false;
 	}
 	
-	private String encode(String s)
+	@Override
+	public void warning(ReporterResult result)
 	{
-		for (String r : pairs.keySet())
+		if (!fileOpened)
 		{
-			if (StringUtils.isNotEmpty(s))
-			{
-				s = StringUtils.replace(s, r, pairs.get(r));
-			}
+			out.write("\t<file").attribute("name", StringUtils.removeStart(file, "./")).write(">\n");
+			fileOpened = true;
 		}
-		return s != null ? s : "";
-	}
-	
-	@Override
-	public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
-	{	
-		Map<String, List<Issue>> files = new HashMap<String, List<Issue>>();
-		List<String> out = new ArrayList<String>();
 		
-		for (ReporterResult result : results)
+		// Create the error message
+		String errorMessage = result.getError().getReason();
+		if (StringUtils.isNotEmpty(verbose))
 		{
-			// Register the file
-			String file = StringUtils.removeStart(result.getFile(), "./");
-			if (!files.containsKey(file))
-			{
-				files.put(file, new ArrayList<Issue>());
-			}
-			
-			// Create the error message
-			String errorMessage = result.getError().getReason();
-			if (StringUtils.isNotEmpty(verbose))
-			{
-				errorMessage += " (" + result.getError().getCode() + ")";
-			}
-			
-			String typeNo = result.getError().getCode();
-			String severity = "";
-			switch (typeNo.charAt(0))
-			{
-			case 'I':
-				severity = "info";
-				break;
-			case 'W':
-				severity = "warning";
-				break;
-			case 'E':
-				severity = "error";
-				break;
-			}
-			
-			// Add the error
-			files.get(file).add(new Issue(
-					severity,
-					result.getError().getLine(),
-					result.getError().getCharacter(),
-					errorMessage,
-					"jshint." + result.getError().getCode()
-			));
+			errorMessage += " (" + result.getError().getCode() + ")";
 		}
 		
-		out.add("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
-		out.add("<checkstyle version=\"4.3\">");
-		
-		for (String fileName : files.keySet())
+		String typeNo = result.getError().getCode();
+		String severity = "";
+		switch (typeNo.charAt(0))
 		{
-			out.add("\t<file name=\"" + fileName + "\">");
-			for (int i = 0; i < files.get(fileName).size(); i++)
-			{
-				Issue issue = files.get(fileName).get(i);
-				out.add(
-					"\t\t<error " +
-					"line=\"" + issue.line + "\" " +
-					"column=\"" + issue.column + "\" " +
-					"severity=\"" + issue.severity + "\" " +
-					"message=\"" + encode(issue.message) + "\" " +
-					"source=\"" + encode(issue.source) + "\" " +
-					"/>"
-				);
-			}
-			out.add("\t</file>");
+		case 'I':
+			severity = "info";
+			break;
+		case 'W':
+			severity = "warning";
+			break;
+		case 'E':
+			severity = "error";
+			break;
 		}
 		
-		out.add("</checkstyle>");
-		
-		System.out.println(StringUtils.join(out, "\n"));
+		// Add the error
+		out.write("\t\t<error")
+			.attribute("line", result.getError().getLine())
+			.attribute("column", result.getError().getCharacter())
+			.attribute("severity", severity)
+			.attribute("message", errorMessage)
+			.attribute("source", "jshint." + result.getError().getCode())
+			.write(" />\n");
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
+		if (fileOpened)
+		{
+			out.write("\t</file>\n");
+		}
+	}
+	
+	@Override
+	public void end()
+	{
+		out.write("</checkstyle>\n");
+		out.flush();
+		out = null;
 	}
-}
\ No newline at end of file
+}
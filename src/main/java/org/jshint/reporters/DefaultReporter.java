@@ -1,44 +1,63 @@
 package org.jshint.reporters;
 
-import java.util.List;
-
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.DataSummary;
 import org.jshint.LinterWarning;
 
-public class DefaultReporter implements JSHintReporter
-{	
+public class DefaultReporter implements StreamingReporter
+{
+	private String verbose;
+	private int len;
+	private boolean reported; // true if warnings of any previous file were printed
+	private StringBuilder str;
+	
+	@Override
+	public void start(String verbose)
+	{
+		this.verbose = verbose;
+		this.len = 0;
+		this.reported = false;
+	}
+	
 	@Override
-	public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+	public void fileStarted(String file)
 	{
-		int len = results.size();
-		StringBuilder str = new StringBuilder();
-		String prevfile = null;
+		str = new StringBuilder();
+	}
+	
+	@Override
+	public void warning(ReporterResult result)
+	{
+		LinterWarning error = result.getError();
+		len++;
+		
+		str.append(result.getFile() + ": line " + error.getLine() + ", col " + error.getCharacter() + ", " + error.getReason());
 		
-		for (ReporterResult result : results)
+		if (StringUtils.isNotEmpty(verbose))
 		{
-			String file = result.getFile();
-			LinterWarning error = result.getError();
-			
-			if (StringUtils.isNotEmpty(prevfile) && !prevfile.equals(file))
-			{
-				str.append("\n");
-			}
-			prevfile = file;
-			
-			str.append(file + ": line " + error.getLine() + ", col " + error.getCharacter() + ", " + error.getReason());
-			
-			if (StringUtils.isNotEmpty(verbose))
-			{
-				str.append(" (" + error.getCode() + ")");
-			}
-			
-			str.append("\n");
+			str.append(" (" + error.getCode() + ")");
 		}
 		
+		str.append("\n");
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
 		if (str.length() > 0)
 		{
-			System.out.println(str + "\n" + len + " error" + (len == 1 ? "" : "s"));
+			System.out.print((reported ? "\n" : "") + str);
+			reported = true;
+		}
+		str = null;
+	}
+	
+	@Override
+	public void end()
+	{
+		if (len > 0)
+		{
+			System.out.println("\n" + len + " error" + (len == 1 ? "" : "s"));
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,76 +1,67 @@
 package org.jshint.reporters;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.DataSummary;
 import org.jshint.LinterWarning;
 
-public class JslintXmlReporter implements JSHintReporter
+public class JslintXmlReporter implements StreamingReporter
 {
-	private static final Map<String, String> pairs = new HashMap<String, String>();
-	static
+	private XmlWriter out;
+	private String file;
+	private boolean fileOpened; // file element is written before its first issue
+	
+	@Override
+	public void start(String verbose)
 	{
-		pairs.put("&", "&amp;");
-		pairs.put("\"", "&quot;");
-		pairs.put("'", "&apos;");
-		pairs.put("<", "&lt;");
-		pairs.put(">", "&gt;");
+		this.out = new XmlWriter(System.out);
+		
+		out.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		out.write("<jslint>\n");
 	}
 	
-	private String encode(String s)
+	@Override
+	public void fileStarted(String file)
 	{
-		for (String r : pairs.keySet())
-		{
-			if (StringUtils.isNotEmpty(s))
-			{
-				s = StringUtils.replace(s, r, pairs.get(r));
-			}
-		}
-		return s != null ? s : "";
+		this.file = file;
+		this.fileOpened = false;
 	}
 	
 	@Override
-	public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+	public void warning(ReporterResult result)
 	{
-		Map<String, List<LinterWarning>> files = new HashMap<String, List<LinterWarning>>();
-		List<String> out = new ArrayList<String>();
-		
-		for (ReporterResult result : results)
+		if (!fileOpened)
 		{
-			String file = StringUtils.removeStart(result.getFile(), "./");
-			if (!files.containsKey(file))
-			{
-				files.put(file, new ArrayList<LinterWarning>());
-			}
-			
-			files.get(file).add(result.getError());
+			out.write("\t<file").attribute("name", StringUtils.removeStart(file, "./")).write(">\n");
+			fileOpened = true;
 		}
 		
-		out.add("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
-		out.add("<jslint>");
-		
-		for (String file : files.keySet())
+		LinterWarning issue = result.getError();
+		out.write("\t\t<issue")
+			.attribute("line", issue.getLine())
+			.attribute("char", issue.getCharacter())
+			.attribute("reason", issue.getReason())
+			.attribute("evidence", issue.getEvidence());
+		if (StringUtils.isNotEmpty(issue.getCode()))
 		{
-			out.add("\t<file name=\"" + file + "\">");
-			for (int i = 0; i < files.get(file).size(); i++)
-			{
-				LinterWarning issue = files.get(file).get(i);
-				out.add("\t\t<issue line=\"" + issue.getLine() +
-						"\" char=\"" + issue.getCharacter() +
-					"\" reason=\"" + encode(issue.getReason()) +
-					"\" evidence=\"" + encode(issue.getEvidence()) +
-					(StringUtils.isNotEmpty(issue.getCode()) ? "\" severity=\"" + encode(String.valueOf(issue.getCode().charAt(0))) : "") +
-					"\" />");
-			}
-			out.add("\t</file>");
+			out.attribute("severity", String.valueOf(issue.getCode().charAt(0)));
 		}
-		
-		out.add("</jslint>");
-		
-		System.out.println(StringUtils.join(out, "\n") + "\n");
+		out.write(" />\n");
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
+		if (fileOpened)
+		{
+			out.write("\t</file>\n");
+		}
+	}
+	
+	@Override
+	public void end()
+	{
+		out.write("</jslint>\n\n");
+		out.flush();
+		out = null;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package org.jshint.reporters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Buffered writer of JSON reports, which writes values as soon as they are given,
+ * so reports of any size are written with constant memory.
+ */
+class JsonWriter
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final Writer out;
+	private final Deque<Boolean> empty = new ArrayDeque<Boolean>(); // true if current object or array has no values yet
+	private boolean afterName = false;
+	
+	JsonWriter(OutputStream stream)
+	{
+		this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+	
+	JsonWriter beginObject()
+	{
+		beforeValue();
+		write("{");
+		empty.push(true);
+		return this;
+	}
+	
+	JsonWriter endObject()
+	{
+		empty.pop();
+		write("}");
+		return this;
+	}
+	
+	JsonWriter beginArray()
+	{
+		beforeValue();
+		write("[");
+		empty.push(true);
+		return this;
+	}
+	
+	JsonWriter endArray()
+	{
+		empty.pop();
+		write("]");
+		return this;
+	}
+	
+	JsonWriter name(String name)
+	{
+		beforeValue();
+		string(name);
+		write(":");
+		afterName = true;
+		return this;
+	}
+	
+	JsonWriter value(String value)
+	{
+		beforeValue();
+		if (value == null)
+		{
+			write("null");
+		}
+		else
+		{
+			string(value);
+		}
+		return this;
+	}
+	
+	JsonWriter value(int value)
+	{
+		beforeValue();
+		write(String.valueOf(value));
+		return this;
+	}
+	
+	JsonWriter value(boolean value)
+	{
+		beforeValue();
+		write(String.valueOf(value));
+		return this;
+	}
+	
+	/**
+	 * Ends a top level value, so the next one is written as a separate record.
+	 */
+	JsonWriter newline()
+	{
+		write("\n");
+		return this;
+	}
+	
+	void flush()
+	{
+		try
+		{
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void beforeValue()
+	{
+		if (afterName)
+		{
+			afterName = false;
+			return;
+		}
+		
+		if (!empty.isEmpty())
+		{
+			if (!empty.pop())
+			{
+				write(",");
+			}
+			empty.push(false);
+		}
+	}
+	
+	private void write(String s)
+	{
+		try
+		{
+			out.write(s);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void string(String s)
+	{
+		try
+		{
+			out.write('"');
+			
+			// Runs of characters, which don't need escaping, are written at once
+			int start = 0;
+			for (int i = 0; i < s.length(); i++)
+			{
+				char c = s.charAt(i);
+				String escaped;
+				switch (c)
+				{
+				case '"':
+					escaped = "\\\"";
+					break;
+				case '\\':
+					escaped = "\\\\";
+					break;
+				case '\n':
+					escaped = "\\n";
+					break;
+				case '\r':
+					escaped = "\\r";
+					break;
+				case '\t':
+					escaped = "\\t";
+					break;
+				case '\u2028': // line separators, which are not allowed in JavaScript strings
+				case '\u2029':
+					escaped = String.format("\\u%04x", (int)c);
+					break;
+				default:
+					if (c >= 0x20) continue;
+					escaped = String.format("\\u%04x", (int)c);
+					break;
+				}
+				
+				out.write(s, start, i - start);
+				out.write(escaped);
+				start = i + 1;
+			}
+			out.write(s, start, s.length() - start);
+			
+			out.write('"');
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package org.jshint.reporters;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jshint.DataSummary;
+
+/**
+ * Adapts reporter, which expects results of all files at once, to the streaming callbacks.
+ */
+public class LegacyReporterAdapter implements StreamingReporter
+{
+	private final JSHintReporter reporter;
+	
+	private String verbose;
+	private List<ReporterResult> results;
+	private List<DataSummary> data;
+	
+	public LegacyReporterAdapter(JSHintReporter reporter)
+	{
+		this.reporter = reporter;
+	}
+	
+	@Override
+	public void start(String verbose)
+	{
+		this.verbose = verbose;
+		this.results = new ArrayList<ReporterResult>();
+		this.data = new ArrayList<DataSummary>();
+	}
+	
+	@Override
+	public void fileStarted(String file)
+	{
+	}
+	
+	@Override
+	public void warning(ReporterResult result)
+	{
+		results.add(result);
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
+		if (data != null)
+		{
+			this.data.add(data);
+		}
+	}
+	
+	@Override
+	public void end()
+	{
+		reporter.generate(results, data, verbose);
+		results = null;
+		data = null;
+	}
+	
+	@Override
+	public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+	{
+		reporter.generate(results, data, verbose);
+	}
+	
+	/**
+	 * Checks if generate() of the reporter is declared by a subclass of every class, which declares
+	 * the streaming callbacks, so the subclass expects results of all files at once.
+	 */
+	static boolean overridesOnlyGenerate(Class<?> reporter)
+	{
+		try
+		{
+			Class<?> generate = reporter.getMethod("generate", List.class, List.class, String.class).getDeclaringClass();
+			if (generate == StreamingReporter.class)
+			{
+				return false;
+			}
+			
+			Method[] callbacks = {
+				reporter.getMethod("start", String.class),
+				reporter.getMethod("fileStarted", String.class),
+				reporter.getMethod("warning", ReporterResult.class),
+				reporter.getMethod("fileFinished", String.class, DataSummary.class),
+				reporter.getMethod("end")
+			};
+			for (Method callback : callbacks)
+			{
+				Class<?> declaring = callback.getDeclaringClass();
+				if (declaring == generate || !declaring.isAssignableFrom(generate))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (NoSuchMethodException e)
+		{
+			return false;
+		}
+	}
+}
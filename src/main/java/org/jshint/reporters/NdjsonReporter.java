@@ -0,0 +1,140 @@
+package org.jshint.reporters;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jshint.DataSummary;
+import org.jshint.ImpliedGlobal;
+import org.jshint.LinterWarning;
+import org.jshint.Token;
+
+/**
+ * Reporter, which writes every warning as a separate JSON object on its own line
+ * as soon as it's reported, so the output can be consumed while files are still linted.
+ * 
+ * Warning: <code>{"type": "warning", "file", "line", "character", "code", "reason", "evidence"}</code>,
+ * summary: <code>{"type": "summary", "file", "implieds", "unused", "functions"}</code>, summaries are
+ * written only if they are requested.
+ */
+public class NdjsonReporter implements StreamingReporter
+{
+	private final boolean summaries;
+	private JsonWriter out;
+	
+	public NdjsonReporter()
+	{
+		this(false);
+	}
+	
+	/**
+	 * @param summaries true if summary of every file has to be written after its warnings
+	 */
+	public NdjsonReporter(boolean summaries)
+	{
+		this.summaries = summaries;
+	}
+	
+	@Override
+	public void start(String verbose)
+	{
+		out = new JsonWriter(System.out);
+	}
+	
+	@Override
+	public void fileStarted(String file)
+	{
+	}
+	
+	@Override
+	public void warning(ReporterResult result)
+	{
+		LinterWarning error = result.getError();
+		
+		out.beginObject()
+			.name("type").value("warning")
+			.name("file").value(result.getFile())
+			.name("line").value(error.getLine())
+			.name("character").value(error.getCharacter())
+			.name("code").value(error.getCode())
+			.name("reason").value(error.getReason())
+			.name("evidence").value(error.getEvidence());
+		if (StringUtils.isNotEmpty(error.getScope()))
+		{
+			out.name("scope").value(error.getScope());
+		}
+		out.endObject().newline();
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
+		if (summaries && data != null)
+		{
+			out.beginObject()
+				.name("type").value("summary")
+				.name("file").value(file);
+			
+			out.name("implieds").beginArray();
+			for (ImpliedGlobal global : data.getImplieds())
+			{
+				out.beginObject().name("name").value(global.getName()).name("lines").beginArray();
+				for (Integer line : global.getLines())
+				{
+					out.value(line);
+				}
+				out.endArray().endObject();
+			}
+			out.endArray();
+			
+			out.name("unused").beginArray();
+			for (Token unused : data.getUnused())
+			{
+				out.beginObject()
+					.name("name").value(unused.getName())
+					.name("line").value(unused.getLine())
+					.name("character").value(unused.getCharacter())
+					.endObject();
+			}
+			out.endArray();
+			
+			out.name("functions").beginArray();
+			for (DataSummary.Function function : data.getFunctions())
+			{
+				out.beginObject()
+					.name("name").value(function.getName())
+					.name("line").value(function.getLine())
+					.name("character").value(function.getCharacter())
+					.name("last").value(function.getLast())
+					.name("lastCharacter").value(function.getLastCharacter())
+					.name("param").beginArray();
+				for (String param : function.getParam())
+				{
+					out.value(param);
+				}
+				out.endArray();
+				
+				DataSummary.Metrics metrics = function.getMetrics();
+				if (metrics != null)
+				{
+					out.name("metrics").beginObject()
+						.name("complexity").value(metrics.getComplexity())
+						.name("parameters").value(metrics.getParameters())
+						.name("statements").value(metrics.getStatements())
+						.endObject();
+				}
+				out.endObject();
+			}
+			out.endArray();
+			
+			out.endObject().newline();
+		}
+		
+		// Consumers see results of every file as soon as it's linted
+		out.flush();
+	}
+	
+	@Override
+	public void end()
+	{
+		out.flush();
+		out = null;
+	}
+}
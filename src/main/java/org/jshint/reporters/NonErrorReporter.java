@@ -8,64 +8,94 @@ import org.jshint.ImpliedGlobal;
 import org.jshint.LinterWarning;
 import org.jshint.Token;
 
-public class NonErrorReporter implements JSHintReporter
+public class NonErrorReporter implements StreamingReporter
 {
+	private String verbose;
+	private int len;
+	private StringBuilder str;
+	private StringBuilder summaries; // printed after all errors, only their text is kept, not tokens
+	
 	@Override
-	public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+	public void start(String verbose)
 	{
-		int len = results.size();
-		StringBuilder str = new StringBuilder();
+		this.verbose = verbose;
+		this.len = 0;
+		this.summaries = new StringBuilder();
+	}
+	
+	@Override
+	public void fileStarted(String file)
+	{
+		str = new StringBuilder();
+	}
+	
+	@Override
+	public void warning(ReporterResult result)
+	{
+		LinterWarning error = result.getError();
+		len++;
 		
-		for (ReporterResult result : results)
+		str.append(result.getFile() + ": line " + error.getLine() + ", col " + error.getCharacter() + ", " + error.getReason());
+		
+		// Add the error code if the --verbose option is set
+		if (StringUtils.isNotEmpty(verbose))
 		{
-			String file = result.getFile();
-			LinterWarning error = result.getError();
-			str.append(file + ": line " + error.getLine() + ", col " + error.getCharacter() + ", " + error.getReason());
-			
-			// Add the error code if the --verbose option is set
-			if (StringUtils.isNotEmpty(verbose))
-			{
-				str.append(" (" + error.getCode() + ")");
-			}
-			
-			str.append("\n");
+			str.append(" (" + error.getCode() + ")");
 		}
 		
-		str.append(len > 0 ? ("\n" + len + " error" + (len == 1 ? "" : "s")) : "");
+		str.append("\n");
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary d)
+	{
+		if (str.length() > 0)
+		{
+			System.out.print(str);
+		}
+		str = null;
 		
-		for (DataSummary d : data)
+		if (d == null)
 		{
-			String file = d.getFile();
-			List<ImpliedGlobal> globals = d.getImplieds();
-			List<Token> unuseds = d.getUnused();
-			
-			if (globals.size() > 0 || unuseds.size() > 0)
-			{
-				str.append("\n\n" + file  + " :\n");
-			}
-			
-			if (globals.size() > 0)
+			return;
+		}
+		
+		List<ImpliedGlobal> globals = d.getImplieds();
+		List<Token> unuseds = d.getUnused();
+		
+		if (globals.size() > 0 || unuseds.size() > 0)
+		{
+			summaries.append("\n\n" + d.getFile()  + " :\n");
+		}
+		
+		if (globals.size() > 0)
+		{
+			summaries.append("\tImplied globals:\n");
+			for (ImpliedGlobal global : globals)
 			{
-				str.append("\tImplied globals:\n");
-				for (ImpliedGlobal global : globals)
-				{
-					str.append("\t\t" + global.getName()  + ": " + global.getLines() + "\n");
-				}
+				summaries.append("\t\t" + global.getName()  + ": " + global.getLines() + "\n");
 			}
-			
-			if (unuseds.size() > 0)
+		}
+		
+		if (unuseds.size() > 0)
+		{
+			summaries.append("\tUnused Variables:\n\t\t");
+			for (Token unused : unuseds)
 			{
-				str.append("\tUnused Variables:\n\t\t");
-				for (Token unused : unuseds)
-				{
-					str.append(unused.getName() + "(" + unused.getLine() + "), ");
-				}
+				summaries.append(unused.getName() + "(" + unused.getLine() + "), ");
 			}
 		}
+	}
+	
+	@Override
+	public void end()
+	{
+		String rest = (len > 0 ? ("\n" + len + " error" + (len == 1 ? "" : "s")) : "") + summaries;
 		
-		if (str.length() > 0)
+		if (rest.length() > 0)
 		{
-			System.out.println(str + "\n");
+			System.out.println(rest + "\n");
 		}
+		summaries = null;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package org.jshint.reporters;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.jshint.DataSummary;
+import org.jshint.LinterWarning;
+
+/**
+ * Reporter, which writes warnings in SARIF 2.1.0 format, understood by code scanning tools.
+ * Every warning is written as soon as it's reported, only the enclosing log is kept open.
+ */
+public class SarifReporter implements StreamingReporter
+{
+	private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+	
+	private JsonWriter out;
+	private String uri; // location of the current file
+	
+	@Override
+	public void start(String verbose)
+	{
+		out = new JsonWriter(System.out);
+		out.beginObject()
+			.name("version").value("2.1.0")
+			.name("$schema").value(SCHEMA)
+			.name("runs").beginArray()
+			.beginObject()
+			.name("tool").beginObject()
+				.name("driver").beginObject()
+					.name("name").value("JSHint")
+					.name("informationUri").value("https://jshint.com")
+				.endObject()
+			.endObject()
+			.name("results").beginArray();
+	}
+	
+	@Override
+	public void fileStarted(String file)
+	{
+		uri = toUri(file);
+	}
+	
+	@Override
+	public void warning(ReporterResult result)
+	{
+		LinterWarning error = result.getError();
+		
+		out.beginObject()
+			.name("ruleId").value(error.getCode())
+			.name("level").value(toLevel(error.getCode()))
+			.name("message").beginObject().name("text").value(error.getReason()).endObject()
+			.name("locations").beginArray()
+			.beginObject()
+			.name("physicalLocation").beginObject()
+			.name("artifactLocation").beginObject().name("uri").value(uri).endObject();
+		
+		// Region is optional, but its lines and columns must be positive
+		if (error.getLine() > 0)
+		{
+			out.name("region").beginObject().name("startLine").value(error.getLine());
+			if (error.getCharacter() > 0)
+			{
+				out.name("startColumn").value(error.getCharacter());
+			}
+			out.endObject();
+		}
+		
+		out.endObject()
+			.endObject()
+			.endArray()
+			.endObject();
+	}
+	
+	@Override
+	public void fileFinished(String file, DataSummary data)
+	{
+	}
+	
+	@Override
+	public void end()
+	{
+		out.endArray()
+			.endObject()
+			.endArray()
+			.endObject()
+			.newline();
+		out.flush();
+		out = null;
+	}
+	
+	private static String toLevel(String code)
+	{
+		switch (code != null && code.length() > 0 ? code.charAt(0) : 'W')
+		{
+		case 'E':
+			return "error";
+		case 'I':
+			return "note";
+		default:
+			return "warning";
+		}
+	}
+	
+	private static String toUri(String file)
+	{
+		try
+		{
+			Path path = Paths.get(file);
+			if (path.isAbsolute())
+			{
+				return path.toUri().toString();
+			}
+		}
+		catch (InvalidPathException e)
+		{
+			// Not a path, e.g. stdin
+		}
+		
+		try
+		{
+			// Relative reference, characters like spaces have to be percent-encoded as in absolute URIs
+			return new URI(null, null, file.replace('\\', '/'), null).toASCIIString();
+		}
+		catch (URISyntaxException e)
+		{
+			return file.replace('\\', '/');
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.jshint.reporters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jshint.DataSummary;
+
+/**
+ * Reporter, which receives results of every file as soon as it's linted, so they can be
+ * written out and released instead of being kept in memory until all files are linted.
+ *
+ * Callbacks are invoked in the following order: {@link #start(String)}, then for every file
+ * {@link #fileStarted(String)}, {@link #warning(ReporterResult)} for each of its warnings
+ * and {@link #fileFinished(String, DataSummary)}, and finally {@link #end()}.
+ */
+public interface StreamingReporter extends JSHintReporter
+{
+	public void start(String verbose);
+	
+	public void fileStarted(String file);
+	
+	public void warning(ReporterResult result);
+	
+	/**
+	 * @param file file, which was linted
+	 * @param data summary of the file, can be null
+	 */
+	public void fileFinished(String file, DataSummary data);
+	
+	public void end();
+	
+	/**
+	 * Replays results, which were collected for all files, through the callbacks.
+	 * Files are reported in the order they first appear in the results or summaries.
+	 */
+	@Override
+	public default void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+	{
+		Map<String, List<ReporterResult>> files = new LinkedHashMap<String, List<ReporterResult>>();
+		Map<String, DataSummary> summaries = new HashMap<String, DataSummary>();
+		
+		for (ReporterResult result : results)
+		{
+			files.computeIfAbsent(result.getFile(), k -> new ArrayList<ReporterResult>()).add(result);
+		}
+		for (DataSummary summary : data)
+		{
+			files.computeIfAbsent(summary.getFile(), k -> new ArrayList<ReporterResult>());
+			summaries.put(summary.getFile(), summary);
+		}
+		
+		start(verbose);
+		for (Map.Entry<String, List<ReporterResult>> file : files.entrySet())
+		{
+			fileStarted(file.getKey());
+			for (ReporterResult result : file.getValue())
+			{
+				warning(result);
+			}
+			fileFinished(file.getKey(), summaries.get(file.getKey()));
+		}
+		end();
+	}
+	
+	/**
+	 * Returns given reporter, if it supports streaming, otherwise wraps it into
+	 * an adapter, which collects all results and passes them to the reporter at the end.
+	 * Subclass of a streaming reporter, which overrides only {@link #generate(List, List, String)},
+	 * is wrapped too, so its generate() is still called as before reporters became streaming.
+	 *
+	 * @param reporter any reporter.
+	 * @return streaming reporter.
+	 */
+	public static StreamingReporter of(JSHintReporter reporter)
+	{
+		if (reporter instanceof StreamingReporter && !LegacyReporterAdapter.overridesOnlyGenerate(reporter.getClass()))
+		{
+			return (StreamingReporter)reporter;
+		}
+		return new LegacyReporterAdapter(reporter);
+	}
+}
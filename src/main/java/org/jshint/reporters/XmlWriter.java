@@ -0,0 +1,112 @@
+package org.jshint.reporters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered writer of XML reports, which escapes attribute values in a single pass
+ * directly into the output, without building intermediate strings.
+ */
+class XmlWriter
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final Writer out;
+	
+	XmlWriter(OutputStream stream)
+	{
+		this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+	
+	/**
+	 * Writes markup as is.
+	 */
+	XmlWriter write(String markup)
+	{
+		try
+		{
+			out.write(markup);
+			return this;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	XmlWriter attribute(String name, int value)
+	{
+		return write(" " + name + "=\"" + value + "\"");
+	}
+	
+	XmlWriter attribute(String name, String value)
+	{
+		try
+		{
+			out.write(' ');
+			out.write(name);
+			out.write("=\"");
+			escape(value);
+			out.write('"');
+			return this;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	void flush()
+	{
+		try
+		{
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void escape(String s) throws IOException
+	{
+		if (s == null) return;
+		
+		// Runs of characters, which don't need escaping, are written at once
+		int start = 0;
+		for (int i = 0; i < s.length(); i++)
+		{
+			String entity;
+			switch (s.charAt(i))
+			{
+			case '&':
+				entity = "&amp;";
+				break;
+			case '"':
+				entity = "&quot;";
+				break;
+			case '\'':
+				entity = "&apos;";
+				break;
+			case '<':
+				entity = "&lt;";
+				break;
+			case '>':
+				entity = "&gt;";
+				break;
+			default:
+				continue;
+			}
+			
+			out.write(s, start, i - start);
+			out.write(entity);
+			start = i + 1;
+		}
+		out.write(s, start, s.length() - start);
+	}
+}
@@ -5,11 +5,18 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -457,7 +464,7 @@ public class IOUtils
 		//shjs.cat(path)
 		public String cat(String path) throws IOException
 		{
-			return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+			return new String(Files.readAllBytes(Paths.get(pathUtils.resolve(path))), StandardCharsets.UTF_8);
 		}
 		
 		//shjs.ls(path)
@@ -492,6 +499,60 @@ public class IOUtils
 		{
 			return Files.isDirectory(Paths.get(pathUtils.resolve(path)));
 		}
+		
+		/**
+		 * Walks the directory tree depth-first in the same order as ls(), reading
+		 * attributes of each entry only once. Paths of the entries are joined to the
+		 * given path. Unreadable entries are skipped, symbolic links are followed.
+		 * 
+		 * @param path           a path to a directory
+		 * @param enterDirectory called for every subdirectory before it's listed,
+		 *                       if it returns false, subdirectory is skipped
+		 * @param visitFile      called for every entry, which is not a directory
+		 */
+		public void walk(String path, Predicate<String> enterDirectory, Consumer<String> visitFile)
+		{
+			Path root = Paths.get(pathUtils.resolve(path));
+			
+			try
+			{
+				Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>()
+				{
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+					{
+						if (dir.equals(root) || enterDirectory.test(pathUtils.join(path, root.relativize(dir).toString())))
+						{
+							return FileVisitResult.CONTINUE;
+						}
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+					{
+						visitFile.accept(pathUtils.join(path, root.relativize(file).toString()));
+						return FileVisitResult.CONTINUE;
+					}
+					
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException e)
+					{
+						return FileVisitResult.CONTINUE;
+					}
+					
+					@Override
+					public FileVisitResult postVisitDirectory(Path dir, IOException e)
+					{
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			}
+			catch (IOException e)
+			{
+				return;
+			}
+		}
 	}
 	
 	public static class CliUtils
@@ -521,6 +582,16 @@ public class IOUtils
 			}
 		}
 		
+		/**
+		 * Opens the standard input for reading line by line, as soon as lines are available.
+		 * 
+		 * @return reader of the standard input.
+		 */
+		public BufferedReader openStdin()
+		{
+			return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		}
+		
 		public void error(String message)
 		{
 			System.err.println(message);
@@ -0,0 +1,39 @@
+package org.jshint.utils;
+
+import org.jshint.JSHint;
+import org.jshint.JSHintException;
+
+import com.github.jshaptic.js4j.UniversalContainer;
+
+/**
+ * Declarative alternative to subscribing listeners from {@link JSHintModule#execute(JSHint)}.
+ * A rule names the token events it inspects and the options it depends on, the linter
+ * installs it only while those options enable it and dispatches all installed rules of
+ * an event in a single pass.
+ * 
+ * Rules are registered with {@link JSHint#addRule(JSHintRule)}, usually from a module.
+ */
+public interface JSHintRule
+{
+	/**
+	 * @return token events this rule inspects, e.g. "Identifier", "String" or "Number".
+	 */
+	public String[] getEvents();
+	
+	/**
+	 * @return names of the options read by {@link #isEnabled(UniversalContainer[])},
+	 * empty array if rule is always enabled.
+	 */
+	public String[] getOptions();
+	
+	/**
+	 * Decides whether rule should be installed. Called whenever options are (re)applied,
+	 * never per token.
+	 * 
+	 * @param options current values of the options returned by {@link #getOptions()}, in the same order.
+	 * @return true if rule should be dispatched.
+	 */
+	public boolean isEnabled(UniversalContainer[] options);
+	
+	public void check(JSHint linter, String event, EventContext ev) throws JSHintException;
+}
@@ -63,7 +63,44 @@ public class Minimatch
 	private final static Pattern tailNormalizer = Pattern.compile("((?:\\\\{2}){0,64})(\\\\?)\\|");
 	private final static Pattern nestedParensNormalizer = Pattern.compile("\\)[+*?]?");
 	
-	private Minimatch() {}
+	private final int options;
+	private final String pattern;
+	private final boolean empty;
+	private final boolean comment;
+	private final boolean negate;
+	private final GlobParsedPattern[][] set;
+	
+	private Minimatch(String pattern, int options)
+	{
+		if (pattern == null) throw new RuntimeException("glob pattern string required");
+		
+		pattern = pattern.trim();
+		
+		// windows support: need to use /, not \
+		if (!SEP.equals("/"))
+		{
+			pattern = StringUtils.replace(pattern, SEP, "/");
+		}
+		
+		this.options = options;
+		this.empty = pattern.isEmpty();
+		// shortcut: comments match nothing.
+		this.comment = !isOption(options, NO_COMMENT) && pattern.startsWith("#");
+		
+		if (empty || comment)
+		{
+			this.pattern = pattern;
+			this.negate = false;
+			this.set = null;
+			return;
+		}
+		
+		final StringBuilder pat = new StringBuilder(pattern);
+		final AtomicBoolean negate = new AtomicBoolean(false);
+		this.set = make(options, pat, negate);
+		this.pattern = pat.toString();
+		this.negate = negate.get();
+	}
 	
 	private static String[] balanced(String a, String b, String pattern)
 	{
@@ -341,6 +378,7 @@ public class Minimatch
 			for (int j = 0; j < slashSplittedSet[i].length; j++)
 			{
 				set[i][j] = parse(slashSplittedSet[i][j], options, false);
+				if (!set[i][j].isLiteral) set[i][j].compile(options);
 			}
 		}
 		
@@ -441,33 +479,53 @@ public class Minimatch
 	
 	public static boolean match(String path, String pattern, int options)
 	{
-		if (pattern == null) throw new RuntimeException("glob pattern string required");
-		
+		return compile(pattern, options).matches(path);
+	}
+	
+	/**
+	 * Parses the pattern once and returns a matcher, which can be used to test
+	 * any number of paths. Matcher is immutable and can be shared between threads.
+	 * 
+	 * @param pattern glob pattern
+	 * @return compiled pattern.
+	 */
+	public static Minimatch compile(String pattern)
+	{
+		return compile(pattern, NO_OPTIONS);
+	}
+	
+	/**
+	 * Parses the pattern once and returns a matcher, which can be used to test
+	 * any number of paths. Matcher is immutable and can be shared between threads.
+	 * 
+	 * @param pattern glob pattern
+	 * @param options matching options
+	 * @return compiled pattern.
+	 */
+	public static Minimatch compile(String pattern, int options)
+	{
+		return new Minimatch(pattern, options);
+	}
+	
+	public boolean matches(String path)
+	{
 		path = path.trim();
-		pattern = pattern.trim();
 		
 		// "" only matches ""
-		if (pattern.isEmpty()) return path.isEmpty();
+		if (empty) return path.isEmpty();
 		// shortcut: comments match nothing.
-		if (!isOption(options, NO_COMMENT) && pattern.charAt(0) == '#') return false;
+		if (comment) return false;
 		
 		// windows support: need to use /, not \
 		if (!SEP.equals("/"))
 		{
 			path = StringUtils.replace(path, SEP, "/");
-			pattern = StringUtils.replace(pattern, SEP, "/");
 		}
 		
-		final StringBuilder pat = new StringBuilder(pattern);
-		final AtomicBoolean negate = new AtomicBoolean(false);
-		final GlobParsedPattern[][] set = make(options, pat, negate);
-		
-		pattern = pat.toString();
-		
 		debug(options, false, "match", path, pattern);
 		
-		String[] f = slashSplit.split(path, -1);
-		debug(options, false, pattern, "split", Arrays.toString(f));
+		String[] f = splitPath(path);
+		if (isOption(options, DEBUG)) debug(options, false, pattern, "split", Arrays.toString(f));
 		
 		// just ONE of the pattern sets in this.set needs to match
 		// in order for it to be valid.  If negating, then just one
@@ -490,18 +548,51 @@ public class Minimatch
 			{
 				file = new String[]{filename};
 			}
-			boolean hit = matchOne(file, p, options);
+			boolean hit = matchOne(file, 0, p, 0, options);
 			if (hit)
 			{
 				if (isOption(options, FLIP_NEGATE)) return true;
-				return !negate.get();
+				return !negate;
 			}
 		}
 		
 		// didn't get any hits.  this is success if it's a negative
 		// pattern, failure otherwise.
 		if (isOption(options, FLIP_NEGATE)) return true;
-		return negate.get();
+		return negate;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return pattern;
+	}
+	
+	// Same as splitting by slashSplit regexp, but without regexp overhead,
+	// since it's done for every matched path
+	private static String[] splitPath(String path)
+	{
+		int count = 1;
+		for (int i = 0; i < path.length(); i++)
+		{
+			if (path.charAt(i) == '/' && (i == 0 || path.charAt(i - 1) != '/')) count++;
+		}
+		
+		String[] parts = new String[count];
+		int start = 0;
+		int n = 0;
+		for (int i = 0; i < path.length(); i++)
+		{
+			if (path.charAt(i) == '/')
+			{
+				parts[n++] = path.substring(start, i);
+				while (i + 1 < path.length() && path.charAt(i + 1) == '/') i++;
+				start = i + 1;
+			}
+		}
+		parts[n] = path.substring(start);
+		
+		return parts;
 	}
 	
 	// set partial to true to test if, for example,
@@ -509,22 +600,29 @@ public class Minimatch
 	// Partial means, if you run out of file before you run
 	// out of pattern, then that's fine, as long as all
 	// the parts match.
-	private static boolean matchOne(String[] file, GlobParsedPattern[] pattern, int options)
+	//
+	// Matching starts from the given offsets in file and pattern, so
+	// globstar can try the rest of the pattern without copying arrays.
+	// Debug output is guarded, because its arguments are expensive to build.
+	private static boolean matchOne(String[] file, int fileStart, GlobParsedPattern[] pattern, int patternStart, int options)
 	{
-		debug(options, "matchOne \n  file: %s\n  pattern: %s", Arrays.toString(file), Arrays.toString(pattern));
-		debug(options, false, "matchOne", file.length, pattern.length);
+		if (isOption(options, DEBUG))
+		{
+			debug(options, "matchOne \n  file: %s\n  pattern: %s", Arrays.toString(file), Arrays.toString(pattern));
+			debug(options, false, "matchOne", file.length, pattern.length);
+		}
 		
-		int fi = 0, pi = 0, fl = file.length, pl = pattern.length; 
+		int fi = fileStart, pi = patternStart, fl = file.length, pl = pattern.length; 
 		for (; (fi < fl) && (pi < pl); fi++, pi++)
 		{
 			debug(options, false, "matchOne loop");
 			GlobParsedPattern p = pattern[pi];
 			String f = file[fi];
 			
-			debug(options, false, Arrays.toString(pattern), p, f);
+			if (isOption(options, DEBUG)) debug(options, false, Arrays.toString(pattern), p, f);
 			if (p == GLOBSTAR)
 			{
-				debug(options, false, "GLOBSTAR", Arrays.toString(pattern), p, f);
+				if (isOption(options, DEBUG)) debug(options, false, "GLOBSTAR", Arrays.toString(pattern), p, f);
 				// "**"
 				// a/**/b/**/c would match the following:
 				// a/b/x/y/z/c
@@ -571,10 +669,9 @@ public class Minimatch
 				{
 					String swallowee = file[fr];
 					
-					debug(options, false, "globstar while", Arrays.toString(file), fr, Arrays.toString(pattern), pr, swallowee);
+					if (isOption(options, DEBUG)) debug(options, false, "globstar while", Arrays.toString(file), fr, Arrays.toString(pattern), pr, swallowee);
 					
-					// MINIMATCH_XXX remove this slice.  Just pass the start index.
-					if (matchOne(Arrays.copyOfRange(file, fr, file.length), Arrays.copyOfRange(pattern, pr, pattern.length), options))
+					if (matchOne(file, fr, pattern, pr, options))
 					{
 						debug(options, false, "globstar found match!", fr, fl, swallowee);
 						// found a match.
@@ -587,7 +684,7 @@ public class Minimatch
 						if (swallowee.equals(".") || swallowee.equals("..") ||
 							(!isOption(options, DOT) && swallowee.startsWith(".")))
 						{
-							debug(options, false, "dot detected!", Arrays.toString(file), fr, Arrays.toString(pattern), pr);
+							if (isOption(options, DEBUG)) debug(options, false, "dot detected!", Arrays.toString(file), fr, Arrays.toString(pattern), pr);
 							break;
 						}
 						
@@ -619,7 +716,7 @@ public class Minimatch
 			}
 			else
 			{
-				hit = Pattern.compile(p.pattern, isOption(options, NO_CASE) ? Pattern.CASE_INSENSITIVE : 0).matcher(f).matches();
+				hit = p.regex.matcher(f).matches();
 				debug(options, false, "pattern match", p, f, hit);
 			}
 			
@@ -895,7 +992,7 @@ public class Minimatch
 					{
 						// not a valid class!
 						GlobParsedPattern sp = parse(cs, options, true);
-						re.replace(0, re.length(), re.substring(0, reClassStart) + "\\[" + sp.re.charAt(0) + "\\]");
+						re.replace(0, re.length(), re.substring(0, reClassStart) + "\\[" + (sp.re != null ? sp.re : "") + "\\]");
 						hasMagic.set(hasMagic.get() || sp.hasMagic);
 						inClass = false;
 						continue;
@@ -936,7 +1033,7 @@ public class Minimatch
 			// any characters that were passed through as-is
 			String cs = pattern.substring(classStart + 1);
 			GlobParsedPattern sp = parse(cs, options, true);
-			re.replace(0, re.length(), re.substring(0, reClassStart) + "\\[" + sp.re.charAt(0));
+			re.replace(0, re.length(), re.substring(0, reClassStart) + "\\[" + (sp.re != null ? sp.re : ""));
 			hasMagic.set(hasMagic.get() || sp.hasMagic);
 		}
 		
@@ -1000,7 +1097,7 @@ public class Minimatch
 			// Handle nested stuff like *(*.js|!(*.json)), where open parens
 			// mean that we should *not* include the ) in the bit that is considered
 			// "after" the negated section.
-			int openParensBefore = nlBefore.split("(").length - 1;
+			int openParensBefore = StringUtils.countMatches(nlBefore, "(");
 			String cleanAfter = nlAfter;
 			for (int i = 0; i < openParensBefore; i++)
 			{
@@ -1173,6 +1270,8 @@ public class Minimatch
 		StringBuilder re;
 		boolean hasMagic;
 		
+		Pattern regex;
+		
 		GlobParsedPattern(String pattern)
 		{
 			this.isLiteral = true;
@@ -1191,6 +1290,19 @@ public class Minimatch
 			this.hasMagic = hasMagic;
 		}
 		
+		void compile(int options)
+		{
+			try
+			{
+				regex = Pattern.compile(pattern, isOption(options, NO_CASE) ? Pattern.CASE_INSENSITIVE : 0);
+			}
+			catch (PatternSyntaxException e)
+			{
+				// invalid regular expression can't match anything
+				regex = Pattern.compile("$.");
+			}
+		}
+		
 		@Override
 		public String toString()
 		{
@@ -0,0 +1,92 @@
+package org.jshint.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jshint.JSHint;
+import org.jshint.JSHintException;
+
+import com.github.jshaptic.js4j.UniversalContainer;
+
+/**
+ * Keeps registered {@link JSHintRule}s and the subset of them which is currently enabled,
+ * grouped by event, so dispatching a token does not touch disabled rules or options at all.
+ */
+public class RuleDispatcher
+{
+	private static final JSHintRule[] NO_RULES = new JSHintRule[0];
+	
+	private List<JSHintRule> rules = new ArrayList<JSHintRule>();
+	private Map<String, JSHintRule[]> installed = new HashMap<String, JSHintRule[]>();
+	
+	public void add(JSHintRule rule)
+	{
+		rules.add(rule);
+	}
+	
+	public void clear()
+	{
+		rules.clear();
+		installed.clear();
+	}
+	
+	/**
+	 * Re-evaluates which rules are enabled. Has to be called every time linting options change.
+	 * 
+	 * @param option function which returns current value of the option by its name.
+	 */
+	public void refresh(Function<String, UniversalContainer> option)
+	{
+		Map<String, List<JSHintRule>> enabled = new HashMap<String, List<JSHintRule>>();
+		
+		for (JSHintRule rule : rules)
+		{
+			String[] names = rule.getOptions();
+			UniversalContainer[] values = new UniversalContainer[names.length];
+			
+			for (int i = 0; i < names.length; i++)
+			{
+				values[i] = option.apply(names[i]);
+			}
+			
+			if (!rule.isEnabled(values))
+			{
+				continue;
+			}
+			
+			for (String event : rule.getEvents())
+			{
+				if (!enabled.containsKey(event))
+				{
+					enabled.put(event, new ArrayList<JSHintRule>());
+				}
+				
+				enabled.get(event).add(rule);
+			}
+		}
+		
+		installed.clear();
+		for (Map.Entry<String, List<JSHintRule>> entry : enabled.entrySet())
+		{
+			installed.put(entry.getKey(), entry.getValue().toArray(NO_RULES));
+		}
+	}
+	
+	public void dispatch(String event, EventContext context, JSHint linter) throws JSHintException
+	{
+		JSHintRule[] list = installed.get(event);
+		
+		if (list == null)
+		{
+			return;
+		}
+		
+		for (JSHintRule rule : list)
+		{
+			rule.check(linter, event, context);
+		}
+	}
+}
@@ -1,36 +1,82 @@
 package org.jshint.test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.Cli;
 import org.jshint.Cli.RunOptions;
+import org.jshint.Daemon;
+import org.jshint.DaemonClient;
+import org.jshint.JSHint;
 import org.jshint.JSHintException;
 import org.jshint.DataSummary;
+import org.jshint.LintCache;
+import org.jshint.LintProfile;
+import org.jshint.LintResults;
+import org.jshint.LintStats;
 import org.jshint.LinterWarning;
 import org.jshint.Reg;
+import org.jshint.Watcher;
 import org.jshint.reporters.CheckstyleReporter;
 import org.jshint.reporters.JSHintReporter;
 import org.jshint.reporters.JslintXmlReporter;
+import org.jshint.reporters.LegacyReporterAdapter;
+import org.jshint.reporters.NdjsonReporter;
 import org.jshint.reporters.NonErrorReporter;
 import org.jshint.reporters.ReporterResult;
+import org.jshint.reporters.SarifReporter;
+import org.jshint.reporters.StreamingReporter;
+import org.jshint.reporters.UnixReporter;
 import org.jshint.test.helpers.CliWrapper;
 import org.jshint.utils.IOUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import com.github.jshaptic.js4j.ContainerFactory;
+import com.github.jshaptic.js4j.JsonParser;
+import com.github.jshaptic.js4j.UniversalContainer;
 
 public class TestCli extends Assert
 {
@@ -182,6 +228,78 @@ public class TestCli extends Assert
 		assertNotEquals(cli.getExitCode(), 2, "ProcessExit");
 	}
 	
+	@Test(groups = {"group"})
+	public void testGroupPrereqIsLintedOnce()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		AtomicInteger prereqReads = new AtomicInteger();
+		
+		cli.stubCat(path -> {
+			if (path.endsWith("prereq.js")) { prereqReads.incrementAndGet(); return "var a = 1;\nconst b = 2;\nfunction c() {}\nd();"; }
+			if (path.endsWith("config.json")) return "{\"undef\":true,\"esversion\":6,\"prereq\":[\"prereq.js\"]}";
+			if (path.endsWith(".js")) return "a = c();\nb = e;";
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		cli.stubExists(path -> path.endsWith(".js") || path.endsWith("config.json"));
+		
+		cli.interpret("file1.js", "file2.js", "file3.js", "--config", "config.json", "--reporter=SimpleReporter");
+		assertEquals(cli.getExitCode(), 2);
+		assertEquals(prereqReads.get(), 1, "prereq is read once");
+		
+		List<ReporterResult> errors = cli.getTestReporter().getResults();
+		assertEquals(errors.size(), 6);
+		for (int i = 0; i < errors.size(); i += 2)
+		{
+			// Warnings from prereq itself are not reported and line numbers are not shifted
+			assertEquals(errors.get(i).getError().getCode(), "W020"); // b is read-only
+			assertEquals(errors.get(i).getError().getLine(), 2);
+			assertEquals(errors.get(i + 1).getError().getCode(), "W117"); // e is not defined
+			assertEquals(errors.get(i + 1).getError().getLine(), 2);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupPrereqDirectives()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		cli.stubCat(path -> {
+			if (path.endsWith("globals.js")) return "/* global g */\n/* exported e */\ni = 1;";
+			if (path.endsWith("options.js")) return "/* jshint asi: true */\nvar o = 1;";
+			if (path.endsWith("globals.json")) return "{\"undef\": true, \"unused\": true, \"prereq\": [\"globals.js\"]}";
+			if (path.endsWith("options.json")) return "{\"undef\": true, \"prereq\": [\"options.js\"]}";
+			if (path.endsWith(".js")) return "var e = g(i, o)\n";
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		cli.stubExists(path -> path.endsWith(".js") || path.endsWith(".json"));
+		
+		// Directive globals, exported names and implied globals reach the file
+		cli.interpret("file.js", "--config", "globals.json", "--reporter=SimpleReporter");
+		List<ReporterResult> errors = cli.getTestReporter().getResults();
+		assertEquals(errors.size(), 2);
+		assertEquals(errors.get(0).getError().getCode(), "W033");
+		assertEquals(errors.get(0).getError().getLine(), 1);
+		assertEquals(errors.get(1).getError().getCode(), "W117");
+		assertEquals(errors.get(1).getError().getReason(), "'o' is not defined.");
+		
+		// Prereq with option directives is prepended, so its options apply to the file
+		cli.interpret("file.js", "--config", "options.json", "--reporter=SimpleReporter");
+		errors = cli.getTestReporter().getResults();
+		assertEquals(errors.size(), 2);
+		assertEquals(errors.get(0).getError().getReason(), "'g' is not defined.");
+		assertEquals(errors.get(0).getError().getLine(), 3);
+		assertEquals(errors.get(1).getError().getReason(), "'i' is not defined.");
+	}
+	
 	// CLI prereqs
 	@Test(groups = {"group"})
 	public void testGroupPrereqCLIOption()
@@ -561,6 +679,39 @@ public class TestCli extends Assert
 		assertEquals(cli.getExitCode(), 0); // eval allowed = rc file found
 	}
 	
+	@Test(groups = {"group"})
+	public void testGroupRcFileIsReadOncePerRun()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		String rc = IOUtils.getPathUtils().join(dir, ".jshintrc");
+		String baseRc = IOUtils.getPathUtils().join(dir, "base.json");
+		
+		AtomicInteger rcReads = new AtomicInteger();
+		AtomicReference<String> rcContent = new AtomicReference<>("{\"extends\": \"base.json\"}");
+		
+		cli.stubExists(path -> path.equals(rc) || path.equals(baseRc) || path.endsWith(".js"));
+		
+		cli.stubCat(path -> {
+			if (path.equals(rc)) { rcReads.incrementAndGet(); return rcContent.get(); }
+			if (path.equals(baseRc)) { rcReads.incrementAndGet(); return "{\"evil\": true}"; }
+			if (path.endsWith(".js")) return "eval('a=2');";
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		cli.interpret("a.js", "b.js", "sub/c.js");
+		assertEquals(cli.getExitCode(), 0); // eval allowed = rc file found for each file
+		assertEquals(rcReads.get(), 2, "rc file and its base are read once");
+		
+		// Config files are read again on the next run
+		rcContent.set("{\"extends\": \"base.json\", \"evil\": false}");
+		cli.interpret("a.js", "b.js");
+		assertEquals(cli.getExitCode(), 2);
+		assertEquals(rcReads.get(), 4);
+	}
+	
 	@Test(groups = {"group"})
 	public void testGroupIgnores()
 	{
@@ -888,6 +1039,77 @@ public class TestCli extends Assert
 		assertEquals(files.get(0), IOUtils.getPathUtils().join("examples", "reporter.js"));
 	}
 	
+	@Test(groups = {"group"})
+	public void testGroupGatherIgnorePatterns() throws IOException
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		cli.stubExists(path -> path.endsWith(".js") || path.endsWith("src") || Reg.test(Pattern.compile("src[\\/\\\\]vendor$"), path));
+		cli.stubIsDirectory(path -> path.endsWith("src") || Reg.test(Pattern.compile("src[\\/\\\\]vendor$"), path));
+		cli.stubLs(path -> {
+			if (path.endsWith("src")) return Arrays.asList("vendor", "app.js", "app.spec.js");
+			if (Reg.test(Pattern.compile("src[\\/\\\\]vendor$"), path)) return Arrays.asList("lib.js");
+			return null;
+		});
+		
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{"file.js", "file2.js", "file.min.js", "src"});
+		opts.setIgnores(Arrays.asList(
+			"file2.js", // exact path
+			"**/*.min.js", // glob
+			IOUtils.getPathUtils().join("src", "vendor", "**"), // directory, which isn't listed
+			"src/*.!(js)", // negated extglob, matches names with several dots
+			"*!(" // invalid pattern, which never matches
+		));
+		opts.setExtensions("");
+		List<String> files = cli.gather(opts);
+		
+		assertEquals(files, Arrays.asList("file.js", IOUtils.getPathUtils().join("src", "app.js")));
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupGatherFileTree() throws IOException
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		Path dir = Files.createTempDirectory("jshint-gather");
+		try
+		{
+			cli.stubCwd(() -> dir.toString());
+			
+			for (String file : new String[]{"src/a.js", "src/b.txt", "src/lib/c.js", "src/lib/vendor/d.js",
+				"node_modules/pkg/index.js", "test/e.json", "test/f.js"})
+			{
+				Path p = dir.resolve(file);
+				Files.createDirectories(p.getParent());
+				Files.write(p, new byte[0]);
+			}
+			
+			Cli.RunOptions opts = new Cli.RunOptions();
+			opts.setArgs(new String[]{"."});
+			opts.setIgnores(Arrays.asList("node_modules", "src/lib/vendor", "test/*.js"));
+			opts.setExtensions("json");
+			
+			List<String> files = cli.gather(opts);
+			Collections.sort(files);
+			
+			assertEquals(files, Arrays.asList("src/a.js", "src/lib/c.js", "test/e.json"));
+		}
+		finally
+		{
+			try (Stream<Path> paths = Files.walk(dir))
+			{
+				for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				{
+					Files.delete(p);
+				}
+			}
+		}
+	}
+	
 	@Test(groups = {"group"})
 	public void testGroupStatusCode()
 	{
@@ -915,6 +1137,955 @@ public class TestCli extends Assert
 		assertEquals(cli.getExitCode(), 2);
 	}
 	
+	@Test(groups = {"group"})
+	public void testGroupThreads()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		String[] files = {"a.js", "b.js", "c.js", "d.js", "e.js", "f.js", "g.js", "h.js"};
+		
+		cli.stubExists(path -> path.endsWith(".js"));
+		
+		cli.stubCat(path -> {
+			for (int i = 0; i < files.length; i++)
+			{
+				// Files are getting smaller, so later files are likely to finish first
+				if (path.endsWith(files[i])) return StringUtils.repeat("var a" + i + " = 1;\n", (files.length - i) * 200) + "func" + i + "()";
+			}
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		cli.interpret(ArrayUtils.addAll(files, "--threads", "4", "--reporter=SimpleReporter"));
+		assertEquals(cli.getExitCode(), 2);
+		
+		List<ReporterResult> errors = cli.getTestReporter().getResults();
+		assertEquals(errors.size(), files.length);
+		for (int i = 0; i < files.length; i++)
+		{
+			assertTrue(errors.get(i).getFile().endsWith(files[i]), "results are reported in the original order");
+			assertEquals(errors.get(i).getError().getCode(), "W033");
+		}
+		
+		cli.restoreExit();
+		cli.interpret("a.js", "--threads", "none");
+		assertEquals(cli.getExitCode(), 1);
+		assertEquals(cli.getErrorMessages().get(0), "Invalid number of threads: none");
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupFailFast()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		String[] files = {"a.js", "b.js", "c.js", "d.js", "e.js", "f.js", "g.js", "h.js"};
+		
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> {
+			for (int i = 0; i < files.length; i++)
+			{
+				// Every file has two warnings, first one is the same for all files
+				if (path.endsWith(files[i])) return StringUtils.repeat("var a" + i + " = 1;\n", (files.length - i) * 200) + "func" + i + "()\nx" + i + "()";
+			}
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		for (String threads : new String[]{"1", "4"})
+		{
+			cli.interpret(ArrayUtils.addAll(files, "--threads", threads, "--fail-fast", "--reporter=SimpleReporter"));
+			assertEquals(cli.getExitCode(), 2);
+			
+			// Reported files are complete and go in the original order
+			List<ReporterResult> errors = cli.getTestReporter().getResults();
+			assertEquals(errors.size(), 2);
+			assertTrue(errors.get(0).getFile().endsWith("a.js"));
+			assertTrue(errors.get(1).getFile().endsWith("a.js"));
+			assertEquals(cli.getErrorMessages().get(cli.getErrorMessages().size() - 1), "Linting stopped after 2 warnings, 7 of 8 files were skipped");
+			
+			cli.interpret(ArrayUtils.addAll(files, "--threads", threads, "--max-warnings", "5", "--reporter=SimpleReporter"));
+			assertEquals(cli.getExitCode(), 2);
+			
+			errors = cli.getTestReporter().getResults();
+			assertEquals(errors.size(), 6);
+			assertTrue(errors.get(5).getFile().endsWith("c.js"));
+			assertEquals(cli.getErrorMessages().get(cli.getErrorMessages().size() - 1), "Linting stopped after 6 warnings, 5 of 8 files were skipped");
+			
+			cli.interpret(ArrayUtils.addAll(files, "--threads", threads, "--max-warnings", "100", "--reporter=SimpleReporter"));
+			assertEquals(cli.getTestReporter().getResults().size(), 16);
+		}
+		
+		cli.restoreExit();
+		cli.interpret("a.js", "--max-warnings", "0");
+		assertEquals(cli.getExitCode(), 1);
+		assertEquals(cli.getErrorMessages().get(cli.getErrorMessages().size() - 1), "Invalid number of warnings: 0");
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupErrorsOnly()
+	{
+		CliWrapper cli = setUpGroupCli();
+		cli.stubRun();
+		
+		cli.interpret("file.js");
+		assertEquals(cli.getProfile(), LintProfile.FULL);
+		
+		cli.interpret("file.js", "--errors-only");
+		assertEquals(cli.getProfile(), LintProfile.ERRORS_ONLY);
+		
+		cli.restoreExit();
+		cli.interpret("file.js", "--errors-only", "--show-non-errors");
+		assertEquals(cli.getExitCode(), 1);
+		assertEquals(cli.getErrorMessages().get(0), "Can't show non-errors with --errors-only");
+		
+		// Results of the errors only profile are never used in full runs
+		UniversalContainer config = ContainerFactory.createObject();
+		Map<String, Boolean> globals = Collections.emptyMap();
+		assertEquals(LintCache.hash("a = 1;", config, globals), LintCache.hash("a = 1;", config, globals, LintProfile.FULL));
+		assertNotEquals(LintCache.hash("a = 1;", config, globals), LintCache.hash("a = 1;", config, globals, LintProfile.ERRORS_ONLY));
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupFlightRecorderEvents() throws IOException
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> "var a = /b+c/;\nvar d = a\n");
+		
+		Path file = Files.createTempFile("jshint", ".jfr");
+		try (Recording recording = new Recording())
+		{
+			for (String event : new String[]{"org.jshint.LintFile", "org.jshint.RegexValidation", "org.jshint.ConfigResolution", "org.jshint.Module"})
+			{
+				recording.enable(event).withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			cli.interpret("a.js", "b.js", "--reporter=SimpleReporter");
+			
+			// Code linted without the CLI is recorded too
+			JSHint jshint = new JSHint();
+			jshint.lint("var a = 1;\n");
+			jshint.setFileName("c.js");
+			jshint.lint(new String[]{"var a = 1", "var b = 2;"});
+			recording.stop();
+			recording.dump(file);
+			
+			Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+				.collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+			
+			List<RecordedEvent> files = events.get("org.jshint.LintFile");
+			assertEquals(files.size(), 4);
+			assertTrue(files.get(0).getString("file").endsWith("a.js"));
+			assertEquals(files.get(0).getLong("bytes"), 25);
+			assertTrue(files.get(0).getInt("tokens") >= 9);
+			assertEquals(files.get(0).getInt("warnings"), 1);
+			assertNull(files.get(2).getString("file"));
+			assertEquals(files.get(2).getLong("bytes"), 11);
+			assertEquals(files.get(2).getInt("warnings"), 0);
+			assertEquals(files.get(3).getString("file"), "c.js");
+			assertEquals(files.get(3).getLong("bytes"), 20);
+			assertEquals(files.get(3).getInt("warnings"), 1);
+			
+			List<RecordedEvent> regexes = events.get("org.jshint.RegexValidation");
+			assertEquals(regexes.size(), 2);
+			assertEquals(regexes.get(0).getInt("length"), 5);
+			
+			List<RecordedEvent> configs = events.get("org.jshint.ConfigResolution");
+			assertEquals(configs.size(), 2);
+			assertFalse(configs.get(0).getBoolean("cached"));
+			assertTrue(configs.get(1).getBoolean("cached"));
+			
+			assertTrue(events.get("org.jshint.Module").stream().anyMatch(event -> "Identifier".equals(event.getString("name"))));
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupStats()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> "var a = /b/;\nvar c = a;\n");
+		
+		cli.interpret("a.js", "b.js", "--reporter=SimpleReporter");
+		assertEquals(cli.getExitCode(), 0);
+		assertEquals(cli.getErrorMessages().size(), 0);
+		
+		for (String threads : new String[]{"1", "4"})
+		{
+			cli.interpret("a.js", "b.js", "--threads", threads, "--stats", "--reporter=SimpleReporter");
+			assertEquals(cli.getExitCode(), 0);
+			
+			String stats = cli.getErrorMessages().get(0);
+			assertTrue(stats.startsWith("Linted 2 files, 6 lines, "), stats);
+			for (LintStats.Phase phase : LintStats.Phase.values())
+			{
+				assertTrue(stats.contains(phase.getLabel()), phase.getLabel());
+			}
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupMetrics() throws IOException
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> path.endsWith("a.js") ? "var a = 1\nb = 2\n" : "var c = 1;\nd();\n");
+		
+		Path textFile = Files.createTempFile("jshint", ".txt");
+		Path jsonFile = Files.createTempFile("jshint", ".json");
+		Path cacheFile = Files.createTempFile("jshint", ".cache");
+		Files.delete(cacheFile);
+		
+		try
+		{
+			cli.interpret("a.js", "c.js", "--metrics", textFile.toString(), "--reporter=SimpleReporter");
+			List<String> text = Files.readAllLines(textFile);
+			assertEquals(text.get(0), "files 2");
+			assertTrue(text.contains("lines 6"), text.toString());
+			assertTrue(text.contains("cacheHits 0"), text.toString());
+			assertEquals(text.get(text.size() - 1), "warnings.W033 2");
+			
+			for (int run = 0; run < 2; run++)
+			{
+				cli.interpret("a.js", "c.js", "--threads", "2", "--cache", "--cache-location", cacheFile.toString(), "--metrics", jsonFile.toString(), "--reporter=SimpleReporter");
+				JsonObject metrics = Json.parse(new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8)).asObject();
+				
+				// Cached files are not linted again, but they are counted with their warnings
+				assertEquals(metrics.getInt("files", -1), 2);
+				assertEquals(metrics.getInt("lines", -1), 6);
+				assertEquals(metrics.getInt("tokens", -1), run == 0 ? 16 : 0);
+				assertEquals(metrics.getInt("cacheHits", -1), run == 0 ? 0 : 2);
+				assertEquals(metrics.getInt("cacheMisses", -1), run == 0 ? 2 : 0);
+				assertTrue(metrics.getInt("maxQueueDepth", 0) > 0);
+				assertTrue(metrics.get("filesPerSecond").isNumber());
+				assertEquals(metrics.get("warnings").asObject().getInt("W033", 0), 2);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(textFile);
+			Files.deleteIfExists(jsonFile);
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupProfileRules()
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> "var a_b = 1;\nif (a_b = 2) {}\n");
+		
+		for (String threads : new String[]{"1", "4"})
+		{
+			cli.interpret("a.js", "b.js", "c.js", "--threads", threads, "--profile-rules", "--reporter=SimpleReporter");
+			
+			String table = cli.getErrorMessages().get(0);
+			assertTrue(table.contains("JSHint.checkCondAssignment"), table);
+			assertTrue(Arrays.stream(table.split("\n")).anyMatch(line -> line.trim().matches("[\\d.,]+ +3 +[\\d.,]+ +JSHint.checkCondAssignment")), table);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupCache() throws IOException
+	{
+		CliWrapper cli = setUpGroupCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		Path cacheFile = Files.createTempFile("jshint", ".cache");
+		Files.delete(cacheFile);
+		
+		Map<String, String> sources = new HashMap<String, String>();
+		sources.put("a.js", "var a = 1\nfunction f(b) { return x; }");
+		sources.put("b.js", "var b = 2;");
+		
+		cli.stubExists(path -> path.endsWith(".js"));
+		cli.stubCat(path -> {
+			for (String file : sources.keySet())
+			{
+				if (path.endsWith(file)) return sources.get(file);
+			}
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		try
+		{
+			cli.interpret("a.js", "b.js", "--cache", "--cache-location", cacheFile.toString(), "--reporter=SimpleReporter");
+			assertEquals(cli.getExitCode(), 2);
+			assertEquals(cli.getCache().getHits(), 0);
+			assertEquals(cli.getCache().getMisses(), 2);
+			assertTrue(Files.exists(cacheFile));
+			
+			List<ReporterResult> linted = cli.getTestReporter().getResults();
+			
+			// Nothing is changed, all results are taken from the cache
+			cli.interpret("a.js", "b.js", "--cache", "--cache-location", cacheFile.toString(), "--reporter=SimpleReporter");
+			assertEquals(cli.getExitCode(), 2);
+			assertEquals(cli.getCache().getHits(), 2);
+			assertEquals(cli.getCache().getMisses(), 0);
+			
+			List<ReporterResult> cached = cli.getTestReporter().getResults();
+			assertEquals(cached.size(), linted.size());
+			for (int i = 0; i < linted.size(); i++)
+			{
+				assertEquals(cached.get(i).getFile(), linted.get(i).getFile());
+				assertEquals(cached.get(i).getError(), linted.get(i).getError());
+			}
+			
+			// Changed file is linted again
+			sources.put("b.js", "var b = 3;");
+			cli.interpret("a.js", "b.js", "--cache", "--cache-location", cacheFile.toString(), "--reporter=SimpleReporter");
+			assertEquals(cli.getCache().getHits(), 1);
+			assertEquals(cli.getCache().getMisses(), 1);
+			
+			// Changed config invalidates results too
+			cli.interpret("a.js", "b.js", "--cache", "--cache-location", cacheFile.toString(), "--prereq", "a.js", "--reporter=SimpleReporter");
+			assertEquals(cli.getCache().getHits(), 0);
+			assertEquals(cli.getCache().getMisses(), 2);
+			
+			// Verbose mode reports usage of the cache
+			cli.interpret("a.js", "b.js", "--cache", "--cache-location", cacheFile.toString(), "--prereq", "a.js", "--verbose", "--reporter=SimpleReporter");
+			assertEquals(cli.getErrorMessages(), Arrays.asList("Cache: 2 hits, 0 misses"));
+			
+			// Cache written by a different version of the linter is ignored
+			assertEquals(LintCache.load(cacheFile).size(), 2);
+			assertEquals(LintCache.load(cacheFile, "0.0.0").size(), 0);
+		}
+		finally
+		{
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupDaemon() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-daemon");
+		Path daemonFile = dir.resolve(".jshintdaemon");
+		Files.write(dir.resolve("file.js"), "var a = 1\n".getBytes(StandardCharsets.UTF_8));
+		
+		Daemon daemon = new Daemon(daemonFile, 0, 0, 2);
+		Thread thread = new Thread(() -> {
+			try
+			{
+				daemon.start();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+		thread.start();
+		
+		try
+		{
+			for (int i = 0; i < 600 && !Files.exists(daemonFile); i++) Thread.sleep(50);
+			assertTrue(Files.exists(daemonFile), "daemon is started");
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ByteArrayOutputStream err = new ByteArrayOutputStream();
+			
+			// Relative paths are resolved against working directory of the client
+			int code = DaemonClient.send(daemonFile, dir.toString(), new String[]{"file.js", "--reporter=unix"}, null, out, err);
+			assertEquals(code, 2, err.toString("UTF-8"));
+			assertTrue(out.toString("UTF-8").startsWith("file.js:1:10: Missing semicolon."), out.toString("UTF-8"));
+			
+			out.reset();
+			code = DaemonClient.send(daemonFile, dir.toString(), new String[]{"-"},
+				new ByteArrayInputStream("var b = 1;\n".getBytes(StandardCharsets.UTF_8)), out, err);
+			assertEquals(code, 0);
+			assertEquals(out.size(), 0);
+			
+			code = DaemonClient.send(daemonFile, dir.toString(), new String[]{"--daemon"}, null, out, err);
+			assertEquals(code, 1);
+			assertEquals(err.toString("UTF-8").trim(), "Daemon is already running");
+			
+			// Requests without valid token are dropped
+			Properties props = new Properties();
+			try (InputStream in = Files.newInputStream(daemonFile))
+			{
+				props.load(in);
+			}
+			props.setProperty("token", "invalid");
+			Path forged = dir.resolve("forged");
+			try (OutputStream o = Files.newOutputStream(forged))
+			{
+				props.store(o, null);
+			}
+			try
+			{
+				DaemonClient.send(forged, dir.toString(), new String[]{"file.js"}, null, out, err);
+				fail("request with invalid token is handled");
+			}
+			catch (EOFException e)
+			{
+				// connection is closed by daemon
+			}
+			
+			Files.delete(forged);
+		}
+		finally
+		{
+			daemon.stop();
+			thread.join(10000);
+		}
+		
+		assertFalse(thread.isAlive());
+		assertFalse(Files.exists(daemonFile), "daemon file is deleted on stop");
+		
+		try
+		{
+			DaemonClient.send(daemonFile, dir.toString(), new String[]{"file.js"}, null, new ByteArrayOutputStream(), new ByteArrayOutputStream());
+			fail("daemon is stopped");
+		}
+		catch (DaemonClient.DaemonUnavailableException e)
+		{
+			// client falls back to linting in its own process
+		}
+		
+		Files.delete(dir.resolve("file.js"));
+		Files.delete(dir);
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupStreamingReporter() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-streaming");
+		Files.write(dir.resolve("a.js"), "var a = 1\nvar b = 2\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("b.js"), "var c = 1;\n".getBytes(StandardCharsets.UTF_8));
+		
+		List<String> calls = new ArrayList<String>();
+		
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{dir.resolve("a.js").toString(), dir.resolve("b.js").toString()});
+		opts.setThreads(2);
+		opts.setVerbose("true");
+		opts.setReporter(new StreamingReporter()
+		{
+			@Override
+			public void start(String verbose)
+			{
+				calls.add("start " + verbose);
+			}
+			
+			@Override
+			public void fileStarted(String file)
+			{
+				calls.add("fileStarted " + Paths.get(file).getFileName());
+			}
+			
+			@Override
+			public void warning(ReporterResult result)
+			{
+				calls.add("warning " + result.getError().getCode() + " " + result.getError().getLine());
+			}
+			
+			@Override
+			public void fileFinished(String file, DataSummary data)
+			{
+				calls.add("fileFinished " + Paths.get(file).getFileName() + " " + Paths.get(data.getFile()).getFileName());
+			}
+			
+			@Override
+			public void end()
+			{
+				calls.add("end");
+			}
+		});
+		
+		try
+		{
+			assertFalse(new Cli().run(opts));
+			
+			assertEquals(calls, Arrays.asList(
+				"start true",
+				"fileStarted a.js",
+				"warning W033 1",
+				"warning W033 2",
+				"fileFinished a.js a.js",
+				"fileStarted b.js",
+				"fileFinished b.js b.js",
+				"end"
+			));
+			
+			// Legacy reporters still get all results at once
+			AtomicInteger generated = new AtomicInteger();
+			opts.setReporter((results, data, verbose) -> {
+				generated.incrementAndGet();
+				assertEquals(results.size(), 2);
+				assertEquals(data.size(), 2);
+			});
+			assertFalse(new Cli().run(opts));
+			assertEquals(generated.get(), 1);
+			
+			// Subclass of a built-in reporter, which overrides only generate(), is a legacy reporter too
+			generated.set(0);
+			opts.setReporter(new UnixReporter()
+			{
+				@Override
+				public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+				{
+					generated.incrementAndGet();
+					assertEquals(results.size(), 2);
+				}
+			});
+			assertTrue(StreamingReporter.of(opts.getReporter()) instanceof LegacyReporterAdapter);
+			assertFalse(new Cli().run(opts));
+			assertEquals(generated.get(), 1);
+			
+			UnixReporter streaming = new UnixReporter()
+			{
+				@Override
+				public void warning(ReporterResult result)
+				{
+				}
+				
+				@Override
+				public void generate(List<ReporterResult> results, List<DataSummary> data, String verbose)
+				{
+				}
+			};
+			assertSame(StreamingReporter.of(streaming), streaming);
+			UnixReporter unix = new UnixReporter();
+			assertSame(StreamingReporter.of(unix), unix);
+		}
+		finally
+		{
+			Files.delete(dir.resolve("a.js"));
+			Files.delete(dir.resolve("b.js"));
+			Files.delete(dir);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupXmlReportersEscaping() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-xml");
+		Path file = dir.resolve("a&b.js");
+		Files.write(file, "x = \"'<&>'\";\n".getBytes(StandardCharsets.UTF_8));
+		
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{file.toString()});
+		opts.setConfig(new UniversalContainer(Collections.singletonMap("undef", true)));
+		
+		PrintStream systemOut = System.out;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true, "UTF-8"));
+		
+		try
+		{
+			opts.setReporter(new JslintXmlReporter());
+			new Cli().run(opts);
+			
+			opts.setReporter(new CheckstyleReporter());
+			new Cli().run(opts);
+		}
+		finally
+		{
+			System.setOut(systemOut);
+			Files.delete(file);
+			Files.delete(dir);
+		}
+		
+		String name = StringUtils.replace(file.toString(), "&", "&amp;");
+		assertEquals(out.toString("UTF-8"),
+			"<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+			"<jslint>\n" +
+			"\t<file name=\"" + name + "\">\n" +
+			"\t\t<issue line=\"1\" char=\"1\" reason=\"&apos;x&apos; is not defined.\" evidence=\"x = &quot;&apos;&lt;&amp;&gt;&apos;&quot;;\" severity=\"W\" />\n" +
+			"\t</file>\n" +
+			"</jslint>\n" +
+			"\n" +
+			"<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+			"<checkstyle version=\"4.3\">\n" +
+			"\t<file name=\"" + name + "\">\n" +
+			"\t\t<error line=\"1\" column=\"1\" severity=\"warning\" message=\"&apos;x&apos; is not defined.\" source=\"jshint.W117\" />\n" +
+			"\t</file>\n" +
+			"</checkstyle>\n");
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupJsonReporters() throws Exception
+	{
+		CliWrapper cli = setUpGroupCli();
+		cli.stubRun();
+		
+		cli.interpret("file.js", "--reporter", "ndjson");
+		assertEquals(cli.getReporter().getClass(), NdjsonReporter.class);
+		
+		cli.interpret("file.js", "--reporter", "sarif");
+		assertEquals(cli.getReporter().getClass(), SarifReporter.class);
+		
+		Path dir = Files.createTempDirectory("jshint-json");
+		Path file = dir.resolve("a.js");
+		Files.write(file, "var a = \"\\\"\"\nfunction f(b) { return 1; }\n".getBytes(StandardCharsets.UTF_8));
+		Path spaced = dir.resolve("my file.js");
+		
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{"a.js"});
+		opts.setConfig(new UniversalContainer(Collections.singletonMap("unused", true)));
+		
+		CliWrapper linter = setUpGroupCli();
+		linter.stubCwd(() -> dir.toString());
+		
+		PrintStream systemOut = System.out;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true, "UTF-8"));
+		
+		try
+		{
+			opts.setReporter(new NdjsonReporter(true));
+			linter.run(opts);
+			
+			String[] lines = StringUtils.split(out.toString("UTF-8"), "\n");
+			assertEquals(lines.length, 5);
+			
+			UniversalContainer warning = JsonParser.parse(lines[0]);
+			assertEquals(warning.asString("type"), "warning");
+			assertEquals(warning.asString("file"), "a.js");
+			assertEquals(warning.asString("code"), "W033");
+			assertEquals(warning.asString("evidence"), "var a = \"\\\"\"");
+			assertEquals(JsonParser.parse(lines[1]).asString("code"), "W098");
+			assertEquals(JsonParser.parse(lines[3]).asString("code"), "W098");
+			
+			UniversalContainer summary = JsonParser.parse(lines[4]);
+			assertEquals(summary.asString("type"), "summary");
+			assertEquals(summary.get("unused").getLength().intValue(), 3);
+			assertEquals(summary.get("functions").get(0).asString("name"), "f");
+			assertEquals(summary.get("functions").get(0).get("metrics").asInt("statements"), 1);
+			
+			out.reset();
+			opts.setReporter(new SarifReporter());
+			linter.run(opts);
+			
+			UniversalContainer log = JsonParser.parse(out.toString("UTF-8"));
+			assertEquals(log.asString("version"), "2.1.0");
+			UniversalContainer results = log.get("runs").get(0).get("results");
+			assertEquals(results.getLength().intValue(), 4);
+			assertEquals(results.get(0).asString("ruleId"), "W033");
+			assertEquals(results.get(0).asString("level"), "warning");
+			assertEquals(results.get(0).get("locations").get(0).get("physicalLocation").get("artifactLocation").asString("uri"), "a.js");
+			assertEquals(results.get(0).get("locations").get(0).get("physicalLocation").get("region").asInt("startLine"), 1);
+			
+			// Relative paths are percent-encoded as URI references
+			Files.move(file, spaced);
+			opts.setArgs(new String[]{"my file.js"});
+			out.reset();
+			linter.run(opts);
+			
+			results = JsonParser.parse(out.toString("UTF-8")).get("runs").get(0).get("results");
+			assertEquals(results.get(0).get("locations").get(0).get("physicalLocation").get("artifactLocation").asString("uri"), "my%20file.js");
+		}
+		finally
+		{
+			System.setOut(systemOut);
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(spaced);
+			Files.delete(dir);
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupShardAndMerge() throws Exception
+	{
+		CliWrapper cli = setUpGroupCli();
+		cli.stubRun();
+		
+		cli.interpret("file.js", "--shard", "2/3");
+		assertEquals(cli.getExitCode(), 0);
+		
+		cli.restoreExit();
+		cli.interpret("file.js", "--shard", "4/3");
+		assertEquals(cli.getExitCode(), 1);
+		assertEquals(cli.getErrorMessages().get(0), "Invalid shard: 4/3");
+		
+		Path dir = Files.createTempDirectory("jshint-shard");
+		for (int i = 0; i < 20; i++)
+		{
+			Files.write(dir.resolve("file" + i + ".js"), ("var a" + i + " = " + i + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		
+		CliWrapper linter = setUpGroupCli();
+		linter.stubCwd(() -> dir.toString());
+		
+		try
+		{
+			List<Path> results = new ArrayList<Path>();
+			List<String> files = new ArrayList<String>();
+			List<ReporterResult> warnings = new ArrayList<ReporterResult>();
+			
+			for (int i = 1; i <= 3; i++)
+			{
+				Path path = dir.resolve("shard" + i + ".results");
+				results.add(path);
+				
+				Cli.RunOptions opts = new Cli.RunOptions();
+				opts.setArgs(new String[]{"."});
+				opts.setShard(i, 3);
+				opts.setReporter(LintResults.writer(path, (r, d, v) -> {}));
+				assertFalse(linter.run(opts));
+				
+				// Every file is linted by exactly one shard
+				List<String> shard = new ArrayList<String>();
+				LintResults.merge(Collections.singletonList(path), (r, d, v) -> {
+					for (DataSummary data : d) shard.add(data.getFile());
+				}, null);
+				assertTrue(shard.size() > 0);
+				files.addAll(shard);
+			}
+			
+			assertEquals(files.size(), 20);
+			assertEquals(new HashSet<String>(files).size(), 20);
+			
+			assertFalse(LintResults.merge(results, (r, d, v) -> warnings.addAll(r), null));
+			assertEquals(warnings.size(), 20);
+			assertEquals(warnings.get(0).getError().getCode(), "W033");
+			assertEquals(warnings.get(0).getError().getLine(), 1);
+			
+			try
+			{
+				LintResults.merge(Collections.singletonList(dir.resolve("file0.js")), (r, d, v) -> {}, null);
+				fail("Only results files can be merged");
+			}
+			catch (IOException e)
+			{
+				assertTrue(e.getMessage().startsWith("Can't read results file"));
+			}
+		}
+		finally
+		{
+			try (Stream<Path> paths = Files.walk(dir))
+			{
+				for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				{
+					Files.delete(p);
+				}
+			}
+		}
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupWatch() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-watch");
+		Files.write(dir.resolve("a.js"), "var a = 1\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("b.js"), "var b = 1;\n".getBytes(StandardCharsets.UTF_8));
+		
+		BlockingQueue<Map<String, Integer>> reports = new LinkedBlockingQueue<Map<String, Integer>>();
+		
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{dir.toString()});
+		opts.setReporter((results, data, verbose) -> {
+			// Number of warnings by name of every linted file
+			Map<String, Integer> report = new TreeMap<String, Integer>();
+			for (DataSummary summary : data)
+			{
+				report.put(Paths.get(summary.getFile()).getFileName().toString(), 0);
+			}
+			for (ReporterResult result : results)
+			{
+				report.merge(Paths.get(result.getFile()).getFileName().toString(), 1, Integer::sum);
+			}
+			reports.add(report);
+		});
+		
+		Watcher watcher = new Watcher(new Cli(), opts);
+		AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		Thread thread = new Thread(() -> {
+			try
+			{
+				watcher.watch();
+			}
+			catch (Exception e)
+			{
+				failure.set(e);
+			}
+		});
+		thread.start();
+		
+		try
+		{
+			Map<String, Integer> expected = new TreeMap<String, Integer>();
+			expected.put("a.js", 1);
+			expected.put("b.js", 0);
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), expected, "initial run reports all files");
+			
+			// Only the changed file is reported
+			Files.write(dir.resolve("b.js"), "var b = 2\n".getBytes(StandardCharsets.UTF_8));
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), Collections.singletonMap("b.js", 1));
+			
+			// Files without changes are skipped
+			Files.write(dir.resolve("a.js"), "var a = 1\n".getBytes(StandardCharsets.UTF_8));
+			Files.write(dir.resolve("c.js"), "var c = 1;\n".getBytes(StandardCharsets.UTF_8));
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), Collections.singletonMap("c.js", 0));
+			
+			// Changed config applies to all files in its directory
+			Files.write(dir.resolve(".jshintrc"), "{\"asi\": true}".getBytes(StandardCharsets.UTF_8));
+			expected.put("a.js", 0);
+			expected.put("c.js", 0);
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), expected);
+		}
+		finally
+		{
+			watcher.stop();
+			thread.join(10000);
+			
+			try (Stream<Path> paths = Files.walk(dir))
+			{
+				for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				{
+					Files.delete(p);
+				}
+			}
+		}
+		
+		assertFalse(thread.isAlive());
+		assertNull(failure.get());
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupWatchConfigFile() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-watch");
+		Files.createDirectories(dir.resolve("src"));
+		Files.createDirectories(dir.resolve("conf"));
+		Files.write(dir.resolve("src/a.js"), "var a = 1\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("conf/config.json"), "{\"extends\": \"base.json\"}".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("conf/base.json"), "{}".getBytes(StandardCharsets.UTF_8));
+		
+		BlockingQueue<Integer> reports = new LinkedBlockingQueue<Integer>();
+		
+		// Config passed by --config and its base config aren't in the watched directory
+		Cli cli = new Cli();
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{dir.resolve("src").toString()});
+		opts.setConfigFile(dir.resolve("conf/config.json").toString());
+		opts.setConfig(cli.loadConfig(opts.getConfigFile()));
+		opts.setReporter((results, data, verbose) -> reports.add(results.size()));
+		
+		Watcher watcher = new Watcher(cli, opts);
+		AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		Thread thread = new Thread(() -> {
+			try
+			{
+				watcher.watch();
+			}
+			catch (Exception e)
+			{
+				failure.set(e);
+			}
+		});
+		thread.start();
+		
+		try
+		{
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), Integer.valueOf(1), "initial run reports missing semicolon");
+			
+			// Changed base config is loaded again through the config, which extends it
+			Files.write(dir.resolve("conf/base.json"), "{\"asi\": true}".getBytes(StandardCharsets.UTF_8));
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), Integer.valueOf(0));
+			
+			Files.write(dir.resolve("conf/config.json"), "{\"extends\": \"base.json\", \"asi\": false}".getBytes(StandardCharsets.UTF_8));
+			assertEquals(reports.poll(10, TimeUnit.SECONDS), Integer.valueOf(1));
+		}
+		finally
+		{
+			watcher.stop();
+			thread.join(10000);
+			
+			try (Stream<Path> paths = Files.walk(dir))
+			{
+				for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				{
+					Files.delete(p);
+				}
+			}
+		}
+		
+		assertFalse(thread.isAlive());
+		assertNull(failure.get());
+	}
+	
+	@Test(groups = {"group"})
+	public void testGroupWatchRunOptions() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jshint-watch");
+		Files.write(dir.resolve("a.js"), "var a = 1\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("b.js"), "var b = 1\n".getBytes(StandardCharsets.UTF_8));
+		
+		BlockingQueue<List<ReporterResult>> reports = new LinkedBlockingQueue<List<ReporterResult>>();
+		
+		// Options of the initial run are used for every run
+		Cli.RunOptions opts = new Cli.RunOptions();
+		opts.setArgs(new String[]{dir.toString()});
+		opts.setReporter((results, data, verbose) -> reports.add(results));
+		opts.setMaxWarnings(1);
+		opts.setStats(new LintStats());
+		
+		CliWrapper cli = new CliWrapper();
+		Watcher watcher = new Watcher(cli, opts);
+		AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		Thread thread = new Thread(() -> {
+			try
+			{
+				watcher.watch();
+			}
+			catch (Exception e)
+			{
+				failure.set(e);
+			}
+		});
+		thread.start();
+		
+		try
+		{
+			assertEquals(reports.poll(10, TimeUnit.SECONDS).size(), 1, "linting stops after the first warning");
+		}
+		finally
+		{
+			watcher.stop();
+			thread.join(10000);
+			
+			try (Stream<Path> paths = Files.walk(dir))
+			{
+				for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				{
+					Files.delete(p);
+				}
+			}
+		}
+		
+		assertFalse(thread.isAlive());
+		assertNull(failure.get());
+		
+		List<String> errors = cli.getErrorMessages();
+		assertEquals(errors.size(), 2);
+		assertEquals(errors.get(0), "Linting stopped after 1 warning, 1 of 2 files were skipped");
+		assertTrue(errors.get(1).startsWith("Linted 1 file, "), errors.get(1));
+	}
+	
 	@Test(groups = {"extract"})
 	public void testExtractBasic()
 	{
@@ -1199,6 +2370,15 @@ public class TestCli extends Assert
 		assertEquals(lintError.getCode(), "W030", "found an expression warning");
 		assertEquals(lintError.getLine(), 3, "misaligned line");
 		assertEquals(lintError.getCharacter(), 8, "first misaligned character at column 8");
+		
+		// Extraction and linting are done in separate stages when files are linted concurrently
+		cli.interpret("indent.html", "another.html", "--extract", "auto", "--threads", "2", "--reporter=SimpleReporter");
+		assertEquals(cli.getExitCode(), 2);
+		
+		errors = cli.getTestReporter().getResults();
+		assertEquals(errors.size(), 2, "found two errors");
+		assertEquals(errors.get(0).getError().getCharacter(), 6, "first misaligned character at column 2");
+		assertEquals(errors.get(1).getError().getCharacter(), 8, "first misaligned character at column 8");
 	}
 	
 	@Test(groups = {"extract"})
@@ -1363,4 +2543,165 @@ public class TestCli extends Assert
 		
 		cli.restoreStdout();
 	}
-}
\ No newline at end of file
+	
+	@Test(groups = {"useStdin"})
+	public void testUseStdinBatch() throws UnsupportedEncodingException
+	{
+		CliWrapper cli = setUpUseStdinCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		
+		cli.stubCat(path -> {
+			if (path.endsWith(".jshintrc")) return "{\"asi\": true}";
+			throw new UncheckedIOException(new IOException("Method 'cat' is overridden for testing purposes"));
+		});
+		
+		cli.stubExists(path -> path.endsWith("lib/.jshintrc"));
+		
+		PrintStream systemOut = System.out;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true, "UTF-8"));
+		
+		try
+		{
+			cli.interpret("--batch", "--threads", "2");
+			
+			cli.stdinSend(
+				"{\"id\": 1, \"filename\": \"a.js\", \"source\": \"var a = 1\\n\"}",
+				"",
+				"{\"id\": 2, \"filename\": \"lib/b.js\", \"source\": \"var b = 1\\n\"}",
+				"{\"id\": 3, \"source\": \"x = 1;\", \"config\": {\"undef\": true}}",
+				"{\"id\": 4}",
+				"not json"
+			);
+			cli.stdinEnd();
+		}
+		finally
+		{
+			System.setOut(systemOut);
+		}
+		
+		assertEquals(cli.getExitCode(), 2);
+		
+		// Records are linted concurrently, so results are matched by id
+		Map<String, UniversalContainer> results = new HashMap<String, UniversalContainer>();
+		for (String line : StringUtils.split(out.toString("UTF-8"), "\n"))
+		{
+			UniversalContainer result = JsonParser.parse(line);
+			results.put(result.has("id") ? result.asString("id") : "none", result);
+		}
+		assertEquals(results.size(), 5);
+		
+		assertEquals(results.get("1").asString("filename"), "a.js");
+		assertEquals(results.get("1").get("errors").getLength().intValue(), 1);
+		assertEquals(results.get("1").get("errors").get(0).asString("code"), "W033");
+		
+		// Config is resolved by filename
+		assertEquals(results.get("2").get("errors").getLength().intValue(), 0);
+		
+		// Config from the record takes precedence
+		assertEquals(results.get("3").asString("filename"), "stdin");
+		assertEquals(results.get("3").get("errors").get(0).asString("code"), "W117");
+		
+		assertEquals(results.get("4").asString("error"), "Can't parse record: Missing source");
+		assertEquals(results.get("none").asInt("line"), 6);
+		assertTrue(results.get("none").test("error"));
+	}
+	
+	@Test(groups = {"useStdin"})
+	public void testUseStdinBatchError() throws UnsupportedEncodingException
+	{
+		CliWrapper cli = setUpUseStdinCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> false);
+		
+		// Nesting is deep enough to overflow the stack of a worker
+		String nested = "a = " + StringUtils.repeat("(", 200000) + "b" + StringUtils.repeat(")", 200000) + ";";
+		
+		PrintStream systemOut = System.out;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true, "UTF-8"));
+		
+		try
+		{
+			cli.interpret("--batch", "--threads", "2");
+			
+			cli.stdinSend(
+				"{\"id\": 1, \"source\": \"" + nested + "\"}",
+				"{\"id\": 2, \"source\": \"var b = 1;\"}"
+			);
+			cli.stdinEnd();
+		}
+		finally
+		{
+			System.setOut(systemOut);
+		}
+		
+		assertEquals(cli.getExitCode(), 2);
+		
+		Map<String, UniversalContainer> results = new HashMap<String, UniversalContainer>();
+		for (String line : StringUtils.split(out.toString("UTF-8"), "\n"))
+		{
+			UniversalContainer result = JsonParser.parse(line);
+			results.put(result.asString("id"), result);
+		}
+		assertEquals(results.size(), 2);
+		
+		// Record, which failed with an error, still gets its result
+		assertEquals(results.get("1").asInt("line"), 1);
+		assertEquals(results.get("1").asString("error"), "java.lang.StackOverflowError");
+		assertEquals(results.get("2").get("errors").getLength().intValue(), 0);
+	}
+	
+	@Test(groups = {"useStdin"})
+	public void testUseStdinBatchRunOptions() throws IOException
+	{
+		CliWrapper cli = setUpUseStdinCli();
+		
+		String dir = System.getProperty("user.dir") + "/src/test/resources/examples/";
+		cli.stubCwd(() -> dir);
+		cli.stubExists(path -> false);
+		
+		Path metricsFile = Files.createTempFile("jshint", ".txt");
+		
+		PrintStream systemOut = System.out;
+		System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+		
+		try
+		{
+			cli.interpret("--batch", "--threads", "2", "--metrics", metricsFile.toString());
+			
+			cli.stdinSend(
+				"{\"id\": 1, \"source\": \"var a = 1\\n\"}",
+				"{\"id\": 2, \"source\": \"var b = 1;\\n\"}"
+			);
+			cli.stdinEnd();
+			
+			List<String> metrics = Files.readAllLines(metricsFile);
+			assertEquals(metrics.get(0), "files 2");
+			assertTrue(metrics.contains("warnings.W033 1"), metrics.toString());
+			
+			// Stats and profile are collected for all records too
+			cli.interpret("--batch", "--threads", "2", "--stats", "--profile-rules");
+			
+			cli.stdinSend(
+				"{\"id\": 1, \"source\": \"var a = 1\\n\"}",
+				"{\"id\": 2, \"source\": \"if (b = 1) {}\"}"
+			);
+			cli.stdinEnd();
+			
+			List<String> errors = cli.getErrorMessages();
+			assertEquals(errors.size(), 2);
+			assertTrue(errors.get(0).startsWith("Linted 2 files, 3 lines, "), errors.get(0));
+			assertTrue(errors.get(1).contains("JSHint.checkCondAssignment"), errors.get(1));
+		}
+		finally
+		{
+			System.setOut(systemOut);
+			Files.deleteIfExists(metricsFile);
+		}
+	}
+}
@@ -1,17 +1,22 @@
 package org.jshint.test.helpers;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.jshint.Cli;
 import org.jshint.JSHintException;
+import org.jshint.LintCache;
+import org.jshint.LintProfile;
 import org.jshint.reporters.JSHintReporter;
 import org.jshint.utils.IOUtils;
 import com.github.jshaptic.js4j.UniversalContainer;
@@ -83,6 +88,33 @@ public class CliWrapper extends Cli
 			{
 				return isDirectoryStub == null ? super.isDirectory(path) : isDirectoryStub.test(path);
 			}
+			
+			@Override
+			public void walk(String path, Predicate<String> enterDirectory, Consumer<String> visitFile)
+			{
+				if (lsStub == null && isDirectoryStub == null)
+				{
+					super.walk(path, enterDirectory, visitFile);
+					return;
+				}
+				
+				// Walk stubbed file tree
+				List<String> items = ls(path);
+				if (items == null) return;
+				
+				for (String item : items)
+				{
+					String itempath = IOUtils.getPathUtils().join(path, item);
+					if (isDirectory(itempath))
+					{
+						if (enterDirectory.test(itempath)) walk(itempath, enterDirectory, visitFile);
+					}
+					else
+					{
+						visitFile.accept(itempath);
+					}
+				}
+			}
 		};
 		
 		IOUtils.CliUtils cli = new IOUtils.CliUtils()
@@ -92,6 +124,12 @@ public class CliWrapper extends Cli
 			{
 				return stdinLines;
 			}
+			
+			@Override
+			public BufferedReader openStdin()
+			{
+				return new BufferedReader(new StringReader(stdinLines));
+			}
 
 			@Override
 			public void error(String message)
@@ -272,6 +310,16 @@ public class CliWrapper extends Cli
 		return opts != null ? opts.getConfig() : null;
 	}
 	
+	public LintCache getCache()
+	{
+		return opts != null ? opts.getCache() : null;
+	}
+	
+	public LintProfile getProfile()
+	{
+		return opts != null ? opts.getProfile() : null;
+	}
+	
 	public JSHintReporter getReporter()
 	{
 		return opts != null ? opts.getReporter() : null;
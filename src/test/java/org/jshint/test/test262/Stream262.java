@@ -13,9 +13,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
@@ -47,6 +50,8 @@ public class Stream262
 	// Concurrency
 	private final boolean parallel;
 	private final int threadNumber;
+	private final long timeoutMinutes;
+	private final Set<Path> running = ConcurrentHashMap.newKeySet(); // files, which are processed by workers now
 	private ExecutorService executor;
 	
 	// Handlers
@@ -58,6 +63,7 @@ public class Stream262
 	{
 		this.parallel = builder.parallel;
 		this.threadNumber = builder.threadNumber;
+		this.timeoutMinutes = builder.timeoutMinutes;
 		if (parallel)
 		{
 			this.executor = Executors.newFixedThreadPool(threadNumber);
@@ -139,8 +145,20 @@ public class Stream262
 		{
 			try
 			{
+				// Whole suite can take long on slow machines, so the limit is only for a stuck worker
 				executor.shutdown();
-				executor.awaitTermination(10, TimeUnit.MINUTES);
+				if (!executor.awaitTermination(timeoutMinutes, TimeUnit.MINUTES))
+				{
+					// Files are listed before workers are interrupted, since interrupted workers report their own errors
+					List<String> files = running.stream()
+						.map(path -> test262Dir.relativize(path).toString())
+						.sorted()
+						.collect(Collectors.toList());
+					errorHandler.accept(new TimeoutException("Test262 isn't finished in " + timeoutMinutes
+						+ " minutes, files still running: " + String.join(", ", files)));
+					executor.shutdownNow();
+					return;
+				}
 				finishHandler.run();
 			}
 			catch (InterruptedException e)
@@ -195,6 +213,29 @@ public class Stream262
 		if (path.getFileName().startsWith(".")) return;
 		if (fixturePattern.matcher(path.toString()).find()) return;
 		
+		// In parallel mode files are also read and parsed by workers, so only paths are queued
+		if (parallel)
+		{
+			executor.execute(() -> {
+				running.add(path);
+				try
+				{
+					onTests(path);
+				}
+				finally
+				{
+					running.remove(path);
+				}
+			});
+		}
+		else
+		{
+			onTests(path);
+		}
+	}
+	
+	private void onTests(Path path)
+	{
 		compile(path, (tests, err) -> {
 			if (err != null)
 			{
@@ -204,14 +245,7 @@ public class Stream262
 			
 			for (File262 test : tests)
 			{
-				if (parallel)
-				{
-					executor.execute(() -> testHandler.accept(test));
-				}
-				else
-				{
-					testHandler.accept(test);
-				}
+				testHandler.accept(test);
 			}
 		});
 	}
@@ -305,6 +339,7 @@ public class Stream262
 		private final Path test262Dir;
 		private boolean parallel = false;
 		private int threadNumber = Runtime.getRuntime().availableProcessors();
+		private long timeoutMinutes = 60;
 		private Path includesDir;
 		private List<Path> paths;
 		private boolean omitRuntime = false;
@@ -332,6 +367,19 @@ public class Stream262
 			return this;
 		}
 		
+		/**
+		 * Overall time limit of the parallel run, when it's exceeded the stream emits an error
+		 * with files, which are still processed, instead of the finish; defaults to 60 minutes
+		 * 
+		 * @param  timeoutMinutes see description
+		 * @return current stream builder
+		 */
+		public Builder timeout(long timeoutMinutes)
+		{
+			this.timeoutMinutes = timeoutMinutes;
+			return this;
+		}
+		
 		/**
 		 * Directory from which to load "includes" files (defaults to the appropriate subdirectory of the provided 'test262Dir')
 		 * 
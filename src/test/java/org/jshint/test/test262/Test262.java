@@ -8,8 +8,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -65,11 +68,22 @@ public class Test262 extends Assert
 	
 	private static final Path expectationsFile = Paths.get(System.getProperty("user.dir"), "/src/test/resources/test262/expectations.txt");
 	private static final Path javaExpectationsFile = Paths.get(System.getProperty("user.dir"), "/src/test/resources/test262/java-expectations.txt");
+	private static final Path timingsFile = Paths.get(System.getProperty("user.dir"), "/build/reports/test262/timings.csv");
+	private static final int threadNumber = Integer.getInteger("test262.threads", Runtime.getRuntime().availableProcessors());
+	private static final int timeoutMinutes = Integer.getInteger("test262.timeout", 60);
+	private static final int slowestNumber = 15;
 	private static final Stream262 stream = new Stream262.Builder(Paths.get(System.getProperty("user.dir"), "/src/test/resources/test262/test262"))
 		.omitRuntime()
+		.parallel()
+		.threadNumber(threadNumber)
+		.timeout(timeoutMinutes)
 		.build();
 	private static final AtomicInteger count = new AtomicInteger(0);
 	
+	// Timings by directory of the test file, every test has its own linter, so they are measured independently
+	private final Map<String, Timing> timings = new ConcurrentHashMap<String, Timing>();
+	private final Map<String, Long> slowestTests = new ConcurrentHashMap<String, Long>();
+	
 	private Set<String> whitelist;
 	private boolean passed = true;
 	private List<String> allowedSuccess = new ArrayList<String>();
@@ -85,7 +99,8 @@ public class Test262 extends Assert
 	@Test
 	public void test262() throws IOException
 	{
-		System.out.println("Now running tests...");
+		System.out.println("Now running tests in " + threadNumber + " threads...");
+		long start = System.nanoTime();
 		
 		String contents = new String(Files.readAllBytes(expectationsFile), StandardCharsets.UTF_8);
 		whitelist = parseWhitelist(contents);
@@ -103,7 +118,12 @@ public class Test262 extends Assert
 				
 				String id = normalizePath(test.getFile()) + "(" + test.getScenario() + ")";
 				TestStatus expected = "early".equals(test.getAttrs().getNegativePhase()) ? TestStatus.FAIL : TestStatus.PASS;
+				long testStart = System.nanoTime();
 				TestStatus actual = runTest(test) ? TestStatus.PASS : TestStatus.FAIL;
+				long nanos = System.nanoTime() - testStart;
+				
+				timings.computeIfAbsent(normalizePath(test.getFile().getParent()), dir -> new Timing()).add(test.getContents().length(), nanos);
+				slowestTests.put(id, nanos);
 				
 				interpret(id, expected, actual);
 			})
@@ -119,6 +139,7 @@ public class Test262 extends Assert
 				}
 				
 				report();
+				reportTimings(System.nanoTime() - start);
 				
 				if (!passed)
 				{
@@ -239,6 +260,58 @@ public class Test262 extends Assert
 		}
 	}
 	
+	private void reportTimings(long wallNanos)
+	{
+		List<Map.Entry<String, Timing>> dirs = new ArrayList<Map.Entry<String, Timing>>(timings.entrySet());
+		dirs.sort(Comparator.comparing((Map.Entry<String, Timing> e) -> e.getValue().nanos).reversed());
+		
+		Timing total = new Timing();
+		for (Map.Entry<String, Timing> dir : dirs)
+		{
+			total.add(dir.getValue());
+		}
+		
+		System.out.println();
+		System.out.println("Timings:");
+		System.out.format(" %,d tests, %,d KB linted in %,d ms (%,d ms of linting in %d threads), %,d KB/s%n",
+			total.tests, total.chars / 1024, wallNanos / 1000000, total.nanos / 1000000, threadNumber,
+			total.chars * 1000000000L / 1024 / Math.max(wallNanos, 1));
+		
+		System.out.println();
+		System.out.println("Slowest directories:");
+		for (Map.Entry<String, Timing> dir : dirs.subList(0, Math.min(slowestNumber, dirs.size())))
+		{
+			System.out.println("   " + dir.getValue().format() + "  " + dir.getKey());
+		}
+		
+		System.out.println();
+		System.out.println("Slowest tests:");
+		slowestTests.entrySet().stream()
+			.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+			.limit(slowestNumber)
+			.forEach(test -> System.out.format("   %,8.1f ms  %s%n", test.getValue() / 1000000.0, test.getKey()));
+		
+		List<String> lines = new ArrayList<String>();
+		lines.add("directory,tests,chars,ms,kb_per_second");
+		for (Map.Entry<String, Timing> dir : dirs)
+		{
+			Timing timing = dir.getValue();
+			lines.add(dir.getKey() + "," + timing.tests + "," + timing.chars + "," + timing.nanos / 1000000 + "," + timing.speed());
+		}
+		
+		try
+		{
+			Files.createDirectories(timingsFile.getParent());
+			Files.write(timingsFile, lines, StandardCharsets.UTF_8);
+			System.out.println();
+			System.out.println("Timings of all directories are written to " + timingsFile);
+		}
+		catch (IOException e)
+		{
+			System.out.println("Can't write timings: " + e.getMessage());
+		}
+	}
+	
 	private void badnews(List<String> tests, String label, List<String> badnews, List<String> badnewsDetails)
 	{
 		if (tests.size() == 0) return;
@@ -250,6 +323,37 @@ public class Test262 extends Assert
 		badnewsDetails.addAll(tests);
 	}
 	
+	private static class Timing
+	{
+		private int tests = 0;
+		private long chars = 0;
+		private long nanos = 0;
+		
+		private synchronized void add(long chars, long nanos)
+		{
+			this.tests++;
+			this.chars += chars;
+			this.nanos += nanos;
+		}
+		
+		private void add(Timing timing)
+		{
+			this.tests += timing.tests;
+			this.chars += timing.chars;
+			this.nanos += timing.nanos;
+		}
+		
+		private long speed()
+		{
+			return chars * 1000000000L / 1024 / Math.max(nanos, 1);
+		}
+		
+		private String format()
+		{
+			return String.format("%,8d ms %,6d tests %,8d KB/s", nanos / 1000000, tests, speed());
+		}
+	}
+	
 	private static enum TestStatus
 	{
 		PASS,
@@ -1,17 +1,23 @@
 package org.jshint.test.unit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jshint.JSHint;
 import org.jshint.JSHintException;
 import org.jshint.LinterGlobals;
 import org.jshint.LinterOptions;
+import org.jshint.LintCancelledException;
+import org.jshint.LintMetricsListener;
+import org.jshint.LintProfile;
+import org.jshint.LintStats;
 import org.jshint.DataSummary;
 import org.jshint.ImpliedGlobal;
 import org.jshint.LinterWarning;
@@ -2217,5 +2223,156 @@ public class TestCore extends Assert
 		th.addError(7, 19, "'g' was used before it was declared, which is illegal for 'let' variables.");
 		th.addError(8, 19, "'h' was used before it was declared, which is illegal for 'const' variables.");
 		th.test(code, new LinterOptions().set("esversion", 6));
+	}	
+	@Test
+	public void testErrorsOnlyProfile()
+	{
+		String[] libs = {"backbone.js", "jquery-1.7.js", "lodash.js"};
+		
+		for (String lib : libs)
+		{
+			String src = th.readFile("src/test/resources/libs/" + lib);
+			
+			JSHint full = new JSHint();
+			full.lint(src, new LinterOptions().set("undef", true).set("unused", true).set("maxcomplexity", 5).set("maxparams", 3));
+			
+			JSHint errorsOnly = new JSHint();
+			errorsOnly.setProfile(LintProfile.ERRORS_ONLY);
+			errorsOnly.lint(src, new LinterOptions().set("undef", true).set("unused", true).set("maxcomplexity", 5).set("maxparams", 3));
+			
+			assertTrue(full.getErrors().size() > 0, lib);
+			assertEquals(errorsOnly.getErrors(), full.getErrors(), lib);
+			
+			DataSummary data = errorsOnly.generateSummary();
+			assertEquals(data.getErrors(), full.getErrors(), lib);
+			assertEquals(data.getFunctions().size(), 0, lib);
+			assertEquals(data.getImplieds().size(), 0, lib);
+			assertEquals(data.getUnused().size(), 0, lib);
+			assertEquals(data.getMember().size(), 0, lib);
+			assertTrue(full.generateSummary().getFunctions().size() > 0, lib);
+		}
+		
+		// Profile is kept for next runs
+		JSHint jshint = new JSHint();
+		jshint.setProfile(LintProfile.ERRORS_ONLY);
+		jshint.lint("a = function (b) {};", new LinterOptions().set("undef", true).set("unused", true));
+		jshint.lint("a = function (b) {};", new LinterOptions().set("undef", true).set("unused", true));
+		assertEquals(jshint.getErrors().size(), 2);
+		assertEquals(jshint.getProfile(), LintProfile.ERRORS_ONLY);
+		assertEquals(jshint.generateSummary().getImplieds().size(), 0);
+		
+		jshint.setProfile(null);
+		jshint.lint("a = function (b) {};", new LinterOptions().set("undef", true).set("unused", true));
+		assertEquals(jshint.generateSummary().getImplieds().size(), 1);
+		assertEquals(jshint.generateSummary().getUnused().size(), 1);
+	}
+	
+	@Test
+	public void testCancellation()
+	{
+		String src = th.readFile("src/test/resources/libs/jquery-1.7.js");
+		
+		JSHint jshint = new JSHint();
+		
+		AtomicInteger checks = new AtomicInteger();
+		jshint.setCancellation(() -> checks.incrementAndGet() > 1000);
+		try
+		{
+			jshint.lint(src, new LinterOptions());
+			fail("Linting is cancelled");
+		}
+		catch (LintCancelledException e)
+		{
+			assertEquals(checks.get(), 1001, "linting is stopped as soon as it's cancelled");
+		}
+		
+		jshint.setCancellation(() -> false);
+		assertTrue(jshint.lint("var a = 1;", new LinterOptions()));
+		
+		jshint.setCancellation(null);
+		assertTrue(jshint.lint("var a = 1;", new LinterOptions()));
+	}
+	
+	@Test
+	public void testMetricsListener()
+	{
+		List<Map<String, Integer>> warnings = new ArrayList<Map<String, Integer>>();
+		List<Integer> lines = new ArrayList<Integer>();
+		
+		JSHint jshint = new JSHint();
+		jshint.addMetricsListener(new LintMetricsListener()
+		{
+			@Override
+			public void fileLinted(int tokens, int lineCount, long nanos, Map<String, Integer> codes)
+			{
+				assertTrue(tokens > 0);
+				assertTrue(nanos > 0);
+				lines.add(lineCount);
+				warnings.add(codes);
+			}
+		});
+		
+		// Warnings of evaluated code are counted in the file, which contains it
+		jshint.lint("a = 1\nb = 2\nsetTimeout(\"c = 3\", 10);", new LinterOptions().set("undef", true).set("browser", true));
+		assertEquals(warnings.size(), 1, "evaluated code isn't reported separately");
+		assertEquals(lines.get(0), Integer.valueOf(3));
+		assertEquals(warnings.get(0).get("W033"), Integer.valueOf(3));
+		assertEquals(warnings.get(0).get("W117"), Integer.valueOf(3));
+		assertEquals(warnings.get(0).get("W066"), Integer.valueOf(1));
+		
+		jshint.lint("var a = 1;", new LinterOptions());
+		assertEquals(warnings.size(), 2);
+		assertTrue(warnings.get(1).isEmpty());
+	}
+	
+	@Test
+	public void testStats()
+	{
+		String src = "/* globals b */\n" +
+			"function f(a) {\n" +
+			"  return /a+[bc]/.test(a + b);\n" +
+			"}\n" +
+			"setTimeout(\"f(1)\", 10);\n";
+		
+		JSHint jshint = new JSHint();
+		jshint.lint(src, new LinterOptions());
+		assertNull(jshint.generateSummary().getStats());
+		List<LinterWarning> errors = jshint.getErrors();
+		
+		jshint.setStats(true);
+		jshint.lint(src, new LinterOptions());
+		assertEquals(jshint.getErrors(), errors, "stats don't change warnings");
+		
+		LintStats stats = jshint.generateSummary().getStats();
+		assertEquals(stats.getFiles(), 1);
+		assertEquals(stats.getLines(), 6);
+		assertTrue(stats.getTokens() > 20);
+		
+		long total = 0;
+		for (LintStats.Phase phase : LintStats.Phase.values())
+		{
+			assertTrue(stats.getNanos(phase) > 0, phase.getLabel());
+			total += stats.getNanos(phase);
+		}
+		assertEquals(stats.getTotalNanos(), total);
+		
+		// Stats are replaced on every run
+		jshint.lint("var a = 1;", new LinterOptions());
+		LintStats next = jshint.generateSummary().getStats();
+		assertNotSame(next, stats);
+		assertEquals(next.getNanos(LintStats.Phase.EVAL), 0);
+		assertEquals(next.getNanos(LintStats.Phase.REGEX), 0);
+		
+		LintStats sum = new LintStats();
+		sum.add(stats);
+		sum.add(next);
+		assertEquals(sum.getFiles(), 2);
+		assertEquals(sum.getLines(), 7);
+		assertEquals(sum.getTotalNanos(), stats.getTotalNanos() + next.getTotalNanos());
+		assertTrue(sum.toString().startsWith("Linted 2 files, 7 lines, "), sum.toString());
+		
+		jshint.setStats(false);
+		jshint.lint(src, new LinterOptions());
+		assertNull(jshint.generateSummary().getStats());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package org.jshint.test.unit;
+
+import org.jshint.utils.Minimatch;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for glob patterns, which are used to ignore files in the CLI
+ */
+public class TestMinimatch extends Assert
+{
+	@Test
+	public void testCompiledMatchesAsParsed()
+	{
+		String[] patterns = {
+			"/project/src/**",
+			"**/*.min.js",
+			"/project/*/file?.{js,json}",
+			"/project/lib/!(vendor)/*.js",
+			"/project/[a-c]*/*.js",
+			"[[].js"
+		};
+		String[] paths = {
+			"/project/src/file.js",
+			"/project/src/deep/nested/file.js",
+			"/project/lib/jquery.min.js",
+			"/project/lib/file1.json",
+			"/project/lib/file12.js",
+			"/project/lib/vendor/file.js",
+			"/project/lib/own/file.js",
+			"/project/build/file.js",
+			"[[].js",
+			"[.js"
+		};
+		
+		for (String pattern : patterns)
+		{
+			Minimatch matcher = Minimatch.compile(pattern, Minimatch.NO_CASE | Minimatch.DOT);
+			for (String path : paths)
+			{
+				// Compiled pattern can be reused and gives the same result as matching with parsing
+				assertEquals(matcher.matches(path), Minimatch.match(path, pattern, Minimatch.NO_CASE | Minimatch.DOT), pattern + " " + path);
+				assertEquals(matcher.matches(path), matcher.matches(path), pattern + " " + path);
+			}
+		}
+	}
+	
+	@Test
+	public void testCompile()
+	{
+		Minimatch matcher = Minimatch.compile("/project/**/*.js");
+		assertTrue(matcher.matches("/project/file.js"));
+		assertTrue(matcher.matches("/project/src/lib/file.js"));
+		assertFalse(matcher.matches("/project/file.json"));
+		assertFalse(matcher.matches("/other/file.js"));
+		assertFalse(matcher.matches("/project/.hidden/file.js"));
+		
+		matcher = Minimatch.compile("/project/**/*.js", Minimatch.DOT);
+		assertTrue(matcher.matches("/project/.hidden/file.js"));
+		
+		matcher = Minimatch.compile("/Project/*.JS", Minimatch.NO_CASE);
+		assertTrue(matcher.matches("/project/file.js"));
+		
+		matcher = Minimatch.compile("/project/lib/!(vendor)/*.js");
+		assertTrue(matcher.matches("/project/lib/own/file.js"));
+		assertFalse(matcher.matches("/project/lib/vendor/file.js"));
+		
+		matcher = Minimatch.compile("*.{js,json}");
+		assertTrue(matcher.matches("file.js"));
+		assertTrue(matcher.matches("file.json"));
+		assertFalse(matcher.matches("file.jsx"));
+		
+		// Class which isn't closed is matched literally
+		matcher = Minimatch.compile("[[].js");
+		assertTrue(matcher.matches("[[].js"));
+		assertFalse(matcher.matches("[.js"));
+		
+		// Comments and empty patterns
+		assertFalse(Minimatch.compile("#file.js").matches("#file.js"));
+		assertTrue(Minimatch.compile("").matches(""));
+		assertFalse(Minimatch.compile("").matches("file.js"));
+	}
+	
+	@Test
+	public void testInvalidPatternNeverMatches()
+	{
+		// Extglob which isn't closed produces an invalid regular expression
+		Minimatch matcher = Minimatch.compile("*!(");
+		assertFalse(matcher.matches("*!("));
+		assertFalse(matcher.matches("file!("));
+		assertFalse(matcher.matches("file.js"));
+		assertFalse(matcher.matches(""));
+		
+		assertFalse(Minimatch.match("file.js", "*.js!("));
+	}
+}
@@ -6,11 +6,16 @@ import java.util.List;
 import org.jshint.JSHint;
 import org.jshint.JSHintException;
 import org.jshint.LexerEventListener;
+import org.jshint.LintProfiler;
+import org.jshint.LinterOptions;
 import org.jshint.utils.JSHintModule;
+import org.jshint.utils.JSHintRule;
 import org.jshint.utils.EventContext;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.github.jshaptic.js4j.UniversalContainer;
+
 /**
  * The JSHint API does not allow for un-registering "modules", and the Nodeunit
  * API does not support per-group setup/teardown logic. These deficiencies
@@ -78,4 +83,153 @@ public class TestModuleApi extends Assert
 		
 		assertEquals(actual, expected);
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testRulesAreInstalledOnlyWhenEnabled()
+	{
+		JSHint jshint = new JSHint();
+		
+		String[] src = {
+			"var a_b = 1;",
+			"/* jshint camelcase: true */",
+			"var c_d = 2;",
+			"function f() {",
+			"  /* jshint camelcase: false */",
+			"  var e_f = 3;",
+			"}",
+			"var g_h = 4;"
+		};
+		
+		final List<String> checked = new ArrayList<String>();
+		jshint.addModule(new JSHintModule()
+			{
+				@Override
+				public void execute(JSHint linter)
+				{
+					linter.addRule(new JSHintRule()
+						{
+							@Override
+							public String[] getEvents()
+							{
+								return new String[]{"Identifier"};
+							}
+							
+							@Override
+							public String[] getOptions()
+							{
+								return new String[]{"camelcase"};
+							}
+							
+							@Override
+							public boolean isEnabled(UniversalContainer[] options)
+							{
+								return options[0].test();
+							}
+							
+							@Override
+							public void check(JSHint linter, String event, EventContext ev) throws JSHintException
+							{
+								checked.add(ev.getName());
+							}
+						});
+				}
+			});
+		
+		jshint.lint(src);
+		
+		assertEquals(checked.contains("a_b"), false);
+		assertEquals(checked.contains("c_d"), true);
+		assertEquals(checked.contains("e_f"), false);
+		assertEquals(checked.contains("g_h"), true);
+	}
+	
+	@Test
+	public void testProfiler()
+	{
+		JSHint jshint = new JSHint();
+		LintProfiler profiler = new LintProfiler();
+		jshint.setProfiler(profiler);
+		
+		String[] src = {
+			"function f(a) {",
+			"  var b;",
+			"  if (a = 1) { return 'c'; }",
+			"}"
+		};
+		
+		final List<String> identifiers = new ArrayList<String>();
+		final LexerEventListener listener = new LexerEventListener()
+			{
+				@Override
+				public void accept(EventContext x) throws JSHintException
+				{
+					identifiers.add(x.getName());
+				}
+			};
+		final JSHintRule rule = new JSHintRule()
+			{
+				@Override
+				public String[] getEvents()
+				{
+					return new String[]{"Identifier"};
+				}
+				
+				@Override
+				public String[] getOptions()
+				{
+					return new String[]{"unused"};
+				}
+				
+				@Override
+				public boolean isEnabled(UniversalContainer[] options)
+				{
+					return true;
+				}
+				
+				@Override
+				public void check(JSHint linter, String event, EventContext ev) throws JSHintException
+				{
+					
+				}
+			};
+		JSHintModule module = new JSHintModule()
+			{
+				@Override
+				public void execute(JSHint linter)
+				{
+					linter.on("Identifier String", listener);
+					linter.addRule(rule);
+				}
+			};
+		jshint.addModule(module);
+		
+		jshint.lint(src, new LinterOptions().set("unused", true).set("boss", true));
+		
+		// Sections are named after the module, anonymous classes have no other name
+		String name = module.getClass().getName().substring(module.getClass().getName().lastIndexOf('.') + 1);
+		assertEquals(name, "TestModuleApi$5");
+		assertEquals(profiler.getCalls("module " + name), 1);
+		assertEquals(profiler.getCalls("listener " + name + " String"), 1);
+		assertEquals(profiler.getCalls("listener " + name + " Identifier"), identifiers.size() - 1);
+		assertEquals(profiler.getCalls("rule " + name + " Identifier (unused)"), identifiers.size() - 1);
+		assertEquals(profiler.getCalls("rule Style Number"), 1);
+		assertEquals(profiler.getCalls("JSHint.checkCondAssignment"), 1);
+		assertTrue(profiler.getCalls("JSHint.checkLeftSideAssign") > 0);
+		assertEquals(profiler.getCalls("ScopeManager.warnUnused"), 2, "b and f are unused");
+		assertTrue(profiler.getNanos("JSHint.checkCondAssignment") > 0);
+		
+		// Table has a header and a line for every section, the slowest go first
+		String[] table = profiler.toString().split("\n");
+		assertEquals(table.length, profiler.getSections().size() + 1);
+		assertTrue(table[0].endsWith("section"));
+		
+		// Profiler is kept for next runs
+		jshint.lint(src, new LinterOptions().set("unused", true).set("boss", true));
+		assertEquals(profiler.getCalls("module " + name), 2);
+		assertEquals(profiler.getCalls("JSHint.checkCondAssignment"), 2);
+		
+		jshint.setProfiler(null);
+		jshint.lint(src, new LinterOptions().set("unused", true).set("boss", true));
+		assertEquals(profiler.getCalls("JSHint.checkCondAssignment"), 2);
+	}
+}
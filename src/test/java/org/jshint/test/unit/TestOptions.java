@@ -7,6 +7,7 @@ import java.util.List;
 import org.jshint.JSHint;
 import org.jshint.LinterOptions;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.jshint.DataSummary;
 import org.jshint.ImpliedGlobal;
 import org.jshint.Token;
@@ -468,6 +469,10 @@ public class TestOptions extends Assert
 	    th.addError(6, 25, "Identifier 'test_me' is not in camel case.");
 	    th.addError(13, 26, "Identifier 'test_1' is not in camel case.");
 		th.test(source, new LinterOptions().set("es3", true).set("camelcase", true));
+		
+		// Identifiers made only of underscores are tolerated
+		th.newTest();
+		th.test("var _ = 1, __ = _;", new LinterOptions().set("es3", true).set("camelcase", true));
 	}
 	
 	/**
@@ -2635,6 +2640,44 @@ public class TestOptions extends Assert
 		th.test(src, new LinterOptions().set("es3", true));
 	};
 	
+	/**
+	 * Tests budgets `maxtokens`, `maxnesting` and `maxtime`, which stop linting
+	 * of pathological code instead of spending unbounded time on it
+	 */
+	@Test
+	public void testBudgets()
+	{
+		JSHint jshint = new JSHint();
+		
+		String src = StringUtils.repeat("a = 1;\n", 100);
+		assertTrue(jshint.lint(src, new LinterOptions().set("maxtokens", 1000)));
+		
+		assertFalse(jshint.lint(src, new LinterOptions().set("maxtokens", 100)));
+		assertEquals(jshint.getErrors().size(), 1);
+		assertEquals(jshint.getErrors().get(0).getCode(), "E067");
+		assertEquals(jshint.getErrors().get(0).getReason(), "Linting budget 'maxtokens' of 100 is exceeded. (25% scanned).");
+		assertTrue(jshint.getErrors().get(0).getLine() > 1);
+		
+		String nested = "a = " + StringUtils.repeat("(", 500) + "b" + StringUtils.repeat(")", 500) + ";";
+		assertTrue(jshint.lint(nested, new LinterOptions()));
+		
+		assertFalse(jshint.lint(nested, new LinterOptions().set("maxnesting", 100)));
+		assertEquals(jshint.getErrors().size(), 1);
+		assertEquals(jshint.getErrors().get(0).getReason(), "Linting budget 'maxnesting' of 100 is exceeded. (100% scanned).");
+		
+		// Budgets can't be changed by the linted code
+		assertFalse(jshint.lint("/* jshint maxnesting: 1000 */\n" + nested, new LinterOptions().set("maxnesting", 100)));
+		assertEquals(jshint.getErrors().get(0).getCode(), "E002");
+		assertEquals(jshint.getErrors().get(1).getCode(), "E067");
+		
+		assertFalse(jshint.lint("/* jshint maxnesting: false */\n" + nested, new LinterOptions().set("maxnesting", 100)));
+		assertEquals(jshint.getErrors().get(0).getCode(), "E067");
+		
+		String big = StringUtils.repeat(th.readFile("src/test/resources/libs/jquery-1.7.js"), 10);
+		assertFalse(jshint.lint(big, new LinterOptions().set("maxtime", 10).set("maxerr", 100000)));
+		assertTrue(jshint.getErrors().get(jshint.getErrors().size() - 1).getReason().startsWith("Linting budget 'maxtime' of 10 is exceeded. ("));
+	}
+	
 	/**
 	 * Tests the `maxparams` option
 	 */